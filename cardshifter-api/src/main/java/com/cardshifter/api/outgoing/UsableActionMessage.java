@@ -1,13 +1,25 @@
 package com.cardshifter.api.outgoing;
 
+import com.cardshifter.api.ArrayUtil;
 import com.cardshifter.api.messages.Message;
-/** Communicates a usable action. */
+
+import java.util.Arrays;
+
+/**
+ * Communicates a usable action.
+ * <p>
+ * The available targets of a targeted action can be included, see {@link #hasTargets()}.
+ * Clients should then use them instead of sending a RequestTargetsMessage.
+ */
 public class UsableActionMessage extends Message {
 
 	private int id;
 	private String action;
 	private boolean targetRequired;
 	private int targetId;
+	private int[] targets;
+	private int minTargets;
+	private int maxTargets;
 	
 	/** Constructor. (no params) */
     	public UsableActionMessage() {
@@ -29,6 +41,24 @@ public class UsableActionMessage extends Message {
 		this.action = action;
 		this.targetRequired = targetRequired;
 		this.targetId = target;
+		this.targets = new int[0];
+	}
+	/**
+	 * Constructor.
+	 * <p>
+	 * Used for targeted actions that are sent together with their available targets.
+	 * 
+	 * @param id  This entity
+	 * @param action  This action
+	 * @param targets  Set of targets available for this entity and this action
+	 * @param min  Minimum number of targets
+	 * @param max  Maximum number of targets, which is at least 1
+	 */
+	public UsableActionMessage(int id, String action, int[] targets, int min, int max) {
+		this(id, action, true, 0);
+		this.targets = ArrayUtil.copyOf(targets);
+		this.minTargets = min;
+		this.maxTargets = max;
 	}
 	/** 
 	 * Constructor.
@@ -58,6 +88,26 @@ public class UsableActionMessage extends Message {
 	public int getTargetId() {
 		return targetId;
 	}
+	/** @return  Set of targets available for this entity and this action, if they are included */
+	public int[] getTargets() {
+		return ArrayUtil.copyOf(targets);
+	}
+	/** @return  Minimum number of targets, if the targets are included */
+	public int getMinTargets() {
+		return minTargets;
+	}
+	/** @return  Maximum number of targets, or 0 if the targets are not included */
+	public int getMaxTargets() {
+		return maxTargets;
+	}
+	/** @return  Whether or not the available targets are included with this action */
+	public boolean hasTargets() {
+		return targetRequired && maxTargets > 0;
+	}
+	/** @return  The included targets, as they would be sent in reply to a RequestTargetsMessage */
+	public AvailableTargetsMessage availableTargets() {
+		return new AvailableTargetsMessage(id, action, targets, minTargets, maxTargets);
+	}
 	/** @return  This message as converted to String  */
 	@Override
 	public String toString() {
@@ -66,6 +116,9 @@ public class UsableActionMessage extends Message {
 				+ ", action=" + action
 				+ ", targetRequired=" + targetRequired 
 				+ ", targetId=" + targetId 
+				+ ", targets=" + Arrays.toString(targets)
+				+ ", minTargets=" + minTargets
+				+ ", maxTargets=" + maxTargets
 				+ "]";
 	}
 
@@ -3,8 +3,6 @@ package com.cardshifter.ai;
 import java.util.Collection;
 import java.util.Random;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import net.zomis.aiscores.FieldScoreProducer;
 import net.zomis.aiscores.FieldScores;
@@ -16,10 +14,9 @@ import net.zomis.aiscores.extra.ParamAndField;
 import net.zomis.aiscores.extra.ScoreUtils;
 import net.zomis.cardshifter.ecs.config.ConfigComponent;
 
-import com.cardshifter.modapi.actions.ActionComponent;
+import com.cardshifter.modapi.actions.Actions;
 import com.cardshifter.modapi.actions.ECSAction;
 import com.cardshifter.modapi.ai.CardshifterAI;
-import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
 
 public class ScoringAI implements CardshifterAI, ScoreStrategy<Entity, ECSAction> {
@@ -56,19 +53,13 @@ public class ScoringAI implements CardshifterAI, ScoreStrategy<Entity, ECSAction
 	
 	@Override
 	public boolean canScoreField(ScoreParameters<Entity> params, ECSAction action) {
-		return action.isAllowed(params.getParameters());
+		// the fields to score are already the allowed actions
+		return true;
 	}
 
 	@Override
 	public Collection<ECSAction> getFieldsToScore(Entity entity) {
-		return getAllActions(entity.getGame()).collect(Collectors.toList());
-	}
-	
-	private static Stream<ECSAction> getAllActions(ECSGame game) {
-		return game.getEntitiesWithComponent(ActionComponent.class)
-			.stream()
-			.flatMap(entity -> entity.getComponent(ActionComponent.class)
-				.getECSActions().stream());
+		return Actions.getPossibleActionsFor(entity);
 	}
 	
 	@Override
@@ -6,6 +6,8 @@ import java.nio.file.Path;
 import java.util.*;
 import java.util.function.Supplier;
 
+import com.cardshifter.core.groovy.CardLibrary;
+import com.cardshifter.core.groovy.ScriptCache;
 import com.cardshifter.core.modloader.GroovyMod;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
@@ -33,6 +35,16 @@ public class ModCollection {
 	 * All the mods to initialize.
 	 */
 	private final Map<String, Supplier<ECSMod>> mods = new LinkedHashMap<>();
+
+	/**
+	 * The compiled scripts of the loaded Groovy mods.
+	 */
+	private final List<ScriptCache> scriptCaches = new ArrayList<>();
+
+	/**
+	 * The directory to store compiled mod scripts in, or null to only keep them in memory.
+	 */
+	private File compiledDirectory;
 	
 	/**
 	 * Initializes the AIs and Mods and puts them in the collections.
@@ -52,6 +64,19 @@ public class ModCollection {
         return loadExternal(new File("mods/").toPath());
     }
 	
+	/**
+	 * Store the compiled scripts of all Groovy mods in a directory, so that they do not need to be compiled again after a restart.
+	 * This applies both to mods that have already been loaded and to mods that are loaded later.
+	 * 
+	 * @param directory The directory to store compiled scripts in, or null to only keep them in memory
+	 * @return This mod collection
+	 */
+	public ModCollection useCompiledDirectory(Path directory) {
+		this.compiledDirectory = directory == null ? null : directory.toFile();
+		scriptCaches.forEach(scripts -> scripts.setCompiledDirectory(compiledDirectory));
+		return this;
+	}
+
 	/**
 	 * Load all the external mods inside a directory
 	 * 
@@ -69,7 +94,13 @@ public class ModCollection {
                     .filter(File::isDirectory)
                     .filter(f -> new File(f, "Game.groovy").exists())
                     .peek(f -> logger.info("Loading mod " + f.getAbsolutePath()))
-                    .forEach(f -> mods.put(f.getName(), () -> new GroovyMod(f, f.getName())));
+                    .forEach(f -> {
+                        ScriptCache scripts = new ScriptCache(f);
+                        scripts.setCompiledDirectory(compiledDirectory);
+                        scriptCaches.add(scripts);
+                        CardLibrary cardLibrary = new CardLibrary();
+                        mods.put(f.getName(), () -> new GroovyMod(f, f.getName(), scripts, cardLibrary));
+                    });
         }
         return this;
 	}
@@ -5,14 +5,12 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
-import java.util.stream.Stream;
 
 import com.cardshifter.api.config.PlayerConfig;
 import com.cardshifter.api.outgoing.*;
@@ -31,7 +29,6 @@ import com.cardshifter.api.both.PlayerConfigMessage;
 import com.cardshifter.api.incoming.RequestTargetsMessage;
 import com.cardshifter.api.incoming.UseAbilityMessage;
 import com.cardshifter.core.replays.ReplayRecordSystem;
-import com.cardshifter.modapi.actions.ActionComponent;
 import com.cardshifter.modapi.actions.ActionPerformEvent;
 import com.cardshifter.modapi.actions.Actions;
 import com.cardshifter.modapi.actions.ECSAction;
@@ -65,6 +62,10 @@ public class TCGGame extends ServerGame {
 	private final ECSMod mod;
 	private final Supplier<ScheduledExecutorService> aiExecutor;
 	private final String modName;
+	/**
+	 * Whether the available targets of targeted actions are sent together with the actions
+	 */
+	private boolean pushTargets;
 	
 	/**
 	 * 
@@ -191,12 +192,25 @@ public class TCGGame extends ServerGame {
 	public void informAboutTargets(RequestTargetsMessage message, ClientIO client) {
 		ECSAction action = findAction(message.getId(), message.getAction());
 		TargetSet targetAction = action.getTargetSets().get(0);
-		List<Entity> targets = targetAction.findPossibleTargets();
-		int[] targetIds = targets.stream().mapToInt(e -> e.getId()).toArray();
+		int[] targetIds = targetIds(targetAction);
 		
 		client.sendToClient(new AvailableTargetsMessage(message.getId(), message.getAction(), targetIds, targetAction.getMin(), targetAction.getMax()));
 	}
 	
+	private static int[] targetIds(TargetSet targetSet) {
+		return targetSet.findPossibleTargets().stream().mapToInt(e -> e.getId()).toArray();
+	}
+	
+	/**
+	 * Include the available targets in the UsableActionMessage of each targeted action, instead of waiting for
+	 * the clients to request the targets. The targets are found once for each state of the game and shared with later requests.
+	 * 
+	 * @param pushTargets Whether to send the targets together with the actions
+	 */
+	public void setPushTargets(boolean pushTargets) {
+		this.pushTargets = pushTargets;
+	}
+	
 	/**
 	 * Look for a specific action on a specific entity
 	 * 
@@ -264,11 +278,20 @@ public class TCGGame extends ServerGame {
 	 * @return The player at that index
 	 */
 	private Entity getPlayer(int index) {
-		List<Entity> players = game.findEntities(entity -> entity.hasComponent(PlayerComponent.class) && entity.getComponent(PlayerComponent.class).getIndex() == index);
-		if (players.size() != 1) {
-			throw new IllegalStateException("Found " + players.size() + " results for entities with Player index " + index);
+		Entity result = null;
+		int found = 0;
+		EntityQuery players = game.query(PlayerComponent.class);
+		for (int i = 0; i < players.size(); i++) {
+			Entity player = players.get(i);
+			if (player.get(playerData).getIndex() == index) {
+				result = player;
+				found++;
+			}
+		}
+		if (found != 1) {
+			throw new IllegalStateException("Found " + found + " results for entities with Player index " + index);
 		}
-		return players.get(0);
+		return result;
 	}
 	
 	/**
@@ -419,23 +442,23 @@ public class TCGGame extends ServerGame {
 				continue;
 			}
 			Entity player = playerFor(io);
-			getAllActions(game).filter(action -> action.isAllowed(player))
-				.forEach(action -> io.sendToClient(new UsableActionMessage(action.getOwner().getId(), action.getName(), !action.getTargetSets().isEmpty())));
+			Actions.getPossibleActionsFor(player)
+				.forEach(action -> sendUsableAction(io, action));
 		}
 	}
 
-	/**
-	 * 
-	 * @param game The game to search for actions
-	 * @return A stream of action components for all entities in the game
-	 */
-	private static Stream<ECSAction> getAllActions(ECSGame game) {
-		return game.getEntitiesWithComponent(ActionComponent.class)
-			.stream()
-			.flatMap(entity -> entity.getComponent(ActionComponent.class)
-					.getECSActions().stream());
+	private void sendUsableAction(ClientIO io, ECSAction action) {
+		int id = action.getOwner().getId();
+		boolean targeted = !action.getTargetSets().isEmpty();
+		if (pushTargets && targeted) {
+			TargetSet targetSet = action.getTargetSets().get(0);
+			io.sendToClient(new UsableActionMessage(id, action.getName(), targetIds(targetSet), targetSet.getMin(), targetSet.getMax()));
+		}
+		else {
+			io.sendToClient(new UsableActionMessage(id, action.getName(), targeted));
+		}
 	}
-	
+
 	/**
 	 * Sends the zone to all players. If the zone is known, also sends the cards.
 	 * 
@@ -1,6 +1,7 @@
 package com.cardshifter.core.groovy
 
 import com.cardshifter.modapi.actions.ActionAllowedCheckEvent
+import com.cardshifter.modapi.actions.ActionNames
 import com.cardshifter.modapi.actions.ActionPerformEvent
 import com.cardshifter.modapi.actions.TargetableCheckEvent
 import com.cardshifter.modapi.actions.UseCostSystem
@@ -31,10 +32,15 @@ import java.util.stream.Collectors
  */
 class ActionDelegate {
     private final String name
+    /**
+     * The key of the events of the action, see {@link ActionNames}
+     */
+    private final int actionId
     private final ECSGame game
 
     ActionDelegate(ECSGame game, String name) {
         this.name = name
+        this.actionId = ActionNames.id(name)
         this.game = game
     }
     final String opponent = 'inactive player'
@@ -44,12 +50,10 @@ class ActionDelegate {
         game.addSystem(new ECSSystem() {
             @Override
             void startGame(ECSGame game) {
-                game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent, {
-                    if (it.action.name == name) {
-                        boolean allowed = filter.predicate.test(it.entity, it.entity)
-                        if (!allowed) {
-                            it.setAllowed(allowed)
-                        }
+                game.getEvents().registerKeyedHandlerAfter(this, ActionAllowedCheckEvent, actionId, {
+                    boolean allowed = filter.predicate.test(it.entity, it.entity)
+                    if (!allowed) {
+                        it.setAllowed(allowed)
                     }
                 })
             }
@@ -57,17 +61,14 @@ class ActionDelegate {
     }
 
     void requires(Closure closure) {
-        def delegate = new RequiresDelegate()
-        def requirements = closure.rehydrate(delegate, closure.owner, closure.thisObject)
         game.addSystem(new ECSSystem() {
             @Override
             void startGame(ECSGame game) {
-                game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent, {
-                    if (it.action.name == name) {
-                        delegate.setup(it)
-                        requirements.call(it)
-                        it.setAllowed(delegate.allowed)
-                    }
+                game.getEvents().registerKeyedHandlerAfter(this, ActionAllowedCheckEvent, actionId, {
+                    // each check gets its own delegate, as actions can be checked on several threads at once
+                    def delegate = new RequiresDelegate(it)
+                    closure.rehydrate(delegate, closure.owner, closure.thisObject).call(it)
+                    it.setAllowed(delegate.allowed)
                 })
             }
         })
@@ -77,12 +78,10 @@ class ActionDelegate {
         game.addSystem(new ECSSystem() {
             @Override
             void startGame(ECSGame game) {
-                game.getEvents().registerHandlerAfter(this, TargetableCheckEvent, {
-                    if (it.action.name == name) {
-                        Object result = closure.call(it)
-                        if (!result) {
-                            it.setAllowed(false)
-                        }
+                game.getEvents().registerKeyedHandlerAfter(this, TargetableCheckEvent, actionId, {
+                    Object result = closure.call(it)
+                    if (!result) {
+                        it.setAllowed(false)
                     }
                 })
             }
@@ -94,7 +93,7 @@ class ActionDelegate {
         Entity performer
         @PackageScope boolean allowed
 
-        @PackageScope void setup(ActionAllowedCheckEvent event) {
+        RequiresDelegate(ActionAllowedCheckEvent event) {
             this.card = event.entity
             this.performer = event.performer
             this.allowed = event.allowed
@@ -111,14 +110,12 @@ class ActionDelegate {
             game.addSystem(new ECSSystem() {
                 @Override
                 void startGame(ECSGame game) {
-                    game.events.registerHandlerAfter(this, TargetableCheckEvent, {
-                        if (it.action.name == name) {
-                            def source = it.action.owner
-                            def target = it.target
-                            boolean allowed = filter.predicate.test(source, target)
-                            if (!allowed) {
-                                it.setAllowed(allowed)
-                            }
+                    game.events.registerKeyedHandlerAfter(this, TargetableCheckEvent, actionId, {
+                        def source = it.action.owner
+                        def target = it.target
+                        boolean allowed = filter.predicate.test(source, target)
+                        if (!allowed) {
+                            it.setAllowed(allowed)
                         }
                     })
                 }
@@ -168,11 +165,9 @@ class ActionDelegate {
         game.addSystem(new ECSSystem() {
             @Override
             void startGame(ECSGame game) {
-                game.getEvents().registerHandlerAfter(this, ActionPerformEvent, {
-                    if (it.action.name == name) {
-                        def performClosure = closure.rehydrate(new PerformDelegate(it), closure.owner, closure.thisObject)
-                        performClosure.call(it.entity)
-                    }
+                game.getEvents().registerKeyedHandlerAfter(this, ActionPerformEvent, actionId, {
+                    def performClosure = closure.rehydrate(new PerformDelegate(it), closure.owner, closure.thisObject)
+                    performClosure.call(it.entity)
                 })
             }
         })
@@ -5,9 +5,15 @@ import com.cardshifter.modapi.attributes.ECSAttributeMap
 import com.cardshifter.modapi.base.Entity
 import com.cardshifter.modapi.resources.ECSResource
 import com.cardshifter.modapi.resources.ECSResourceMap
+import groovy.transform.CompileStatic
 import groovy.transform.PackageScope
+import org.codehaus.groovy.runtime.InvokerHelper
 
-class CardDelegate implements GroovyInterceptable {
+/**
+ * The delegate of card closures. The methods of this class are called directly, extension methods and
+ * resource methods are resolved when they are missing, followed by the card listeners for the method.
+ */
+class CardDelegate {
     Entity entity
     GroovyMod mod
     private final Map<String, Closure> extMethods = [:]
@@ -35,7 +41,8 @@ class CardDelegate implements GroovyInterceptable {
         entity
     }
 
-    static def missingMethod(Entity entity, GroovyMod mod, String name, args) {
+    @CompileStatic
+    static def missingMethod(Entity entity, GroovyMod mod, String name, Object[] args) {
         ECSResource res = mod.resourceOrNull(name)
         if (res) {
             int value = 1
@@ -44,7 +51,7 @@ class CardDelegate implements GroovyInterceptable {
                 assert param != null : "Invalid parameter when calling $name with args $args for $entity"
                 value = param as int
             } else if (args.length > 1) {
-                throw new MissingMethodException(name, CardDelegate, (Object[]) args)
+                throw new MissingMethodException(name, CardDelegate, args)
             }
             res.retriever.set(entity, value)
         } else {
@@ -52,40 +59,23 @@ class CardDelegate implements GroovyInterceptable {
         }
     }
 
-    def invokeMethod(String name, args) {
-        def metaMethod = CardDelegate.metaClass.getMetaMethod(name, args)
-        def result = null
-        if (metaMethod) {
-            result = metaMethod.invoke(this, args)
+    @CompileStatic
+    def methodMissing(String name, args) {
+        Object[] arguments = (Object[]) args
+        def result
+        Closure cl = this.extMethods.get(name)
+        if (cl) {
+            cl.delegate = this
+            result = InvokerHelper.invokeClosure(cl, arguments)
         } else {
-            def cl = this.extMethods.get(name)
-            if (cl) {
-                cl.delegate = this
-                //cl.resolveStrategy = Closure.DELEGATE_FIRST
-                // This is ugly, but it works. I have not been able to make this work in a cleaner way
-                if (args.length == 0) {
-                    result = cl.call()
-                } else if (args.length == 1) {
-                    result = cl.call(args[0])
-                } else if (args.length == 2) {
-                    result = cl.call(args[0], args[1])
-                } else if (args.length == 3) {
-                    result = cl.call(args[0], args[1], args[2])
-                } else if (args.length == 4) {
-                    result = cl.call(args[0], args[1], args[2], args[3])
-                } else {
-                    throw new IllegalArgumentException("too many arguments for calling method " + name);
-                }
-            } else {
-                result = missingMethod(entity, mod, name, args)
-            }
+            result = missingMethod(entity, mod, name, arguments)
         }
 
         List<Closure> closures = mod.cardMethodListeners.get(name)
         if (closures) {
-            closures.each {
-                it.setDelegate(this)
-                it.call(entity, args)
+            for (Closure closure : closures) {
+                closure.setDelegate(this)
+                closure.call(entity, args)
             }
         }
         return result
@@ -105,10 +95,6 @@ class CardDelegate implements GroovyInterceptable {
         mod.resource(name)
     }
 
-    def methodMissing(String name, args) {
-        missingMethod(entity, mod, name, args)
-    }
-
     void extMethod(String methodName, Closure closure) {
         extMethods.put(methodName, closure)
     }
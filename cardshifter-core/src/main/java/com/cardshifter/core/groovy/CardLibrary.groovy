@@ -0,0 +1,112 @@
+package com.cardshifter.core.groovy
+
+import com.cardshifter.modapi.base.ECSGame
+import com.cardshifter.modapi.base.Entity
+import com.cardshifter.modapi.resources.ECSResource
+import com.cardshifter.modapi.resources.ResourceRegistry
+
+/**
+ * The cards of a mod, shared by all games of the mod, by the card id given by their name.
+ * The card closures of a mod, and the card listeners that run for them, only run for the first game.
+ * Later games get lazy copies of the cards instead, which only copy the components of the template that are taken from them,
+ * so that the values that are sent to the clients are read from the shared templates, see {@link Entity#lazyCopyTo(ECSGame)}.
+ * Like the cards of decks, the lazy copies do not show up in component queries.
+ * The closures should therefore only change the card that they declare.
+ * Closures that are kept on the cards, such as the closures of actions and effects, are shared by all games
+ * and should find the game through their arguments rather than through variables of the scripts.
+ * Cards whose id is declared more than once always run their closures.
+ * The templates are dropped when the scripts of the mod have been modified, see {@link ScriptCache#checkVersion()}.
+ * <p>
+ * The library also keeps the meta classes that give the cards their resource properties,
+ * and the resource registry that gives the resources the same indices in all games of the mod.
+ */
+class CardLibrary {
+
+    final ResourceRegistry resourceRegistry = new ResourceRegistry()
+    /**
+     * The game that owns the card templates, which is never started. The templates are never changed after they are added,
+     * because they are read by the threads of the games that have copies of them.
+     */
+    private final ECSGame templateGame = new ECSGame(resourceRegistry: resourceRegistry)
+    private final Map<String, Entity> templates = [:]
+    /**
+     * The ids of the cards that are declared more than once by the mod, which never get templates
+     */
+    private final Set<String> excluded = new HashSet<>()
+    /**
+     * The version of the scripts that the templates were created by
+     */
+    private long scriptVersion
+    private ModMetaClasses metaClasses
+
+    /**
+     * Drop the templates if they were created by older scripts than the given version
+     *
+     * @param version The version of the scripts of a game
+     * @return True if the templates are created by the given version of the scripts
+     */
+    private boolean isCurrent(long version) {
+        if (version > scriptVersion) {
+            templates.clear()
+            excluded.clear()
+            scriptVersion = version
+        }
+        return version == scriptVersion
+    }
+
+    /**
+     * Create a lazy copy of the template of a card
+     *
+     * @param cardId The id of the card
+     * @param game The game to create the card in
+     * @param version The version of the scripts of the game
+     * @return The new card, or null if there is no template for the card from that version of the scripts
+     */
+    synchronized Entity create(String cardId, ECSGame game, long version) {
+        if (!isCurrent(version)) {
+            return null
+        }
+        Entity template = templates[cardId]
+        return template?.lazyCopyTo(game)
+    }
+
+    /**
+     * Add the template of a card, unless there already is a template for the card
+     *
+     * @param cardId The id of the card
+     * @param card The card to make a template of
+     * @param version The version of the scripts that created the card
+     */
+    synchronized void add(String cardId, Entity card, long version) {
+        if (isCurrent(version) && !excluded.contains(cardId) && !templates.containsKey(cardId)) {
+            templates[cardId] = card.copyTo(templateGame)
+        }
+    }
+
+    /**
+     * Never use a template for a card, because the id does not identify a single card
+     *
+     * @param cardId The id of the card
+     * @param version The version of the scripts that declared the card
+     */
+    synchronized void exclude(String cardId, long version) {
+        if (isCurrent(version)) {
+            excluded.add(cardId)
+            templates.remove(cardId)
+        }
+    }
+
+    /**
+     * Get the meta classes for the games and entities of the mod, which are only created again if the resources have changed
+     *
+     * @param resources The resources of the mod, by upper case name
+     * @return The shared meta classes
+     */
+    synchronized ModMetaClasses metaClasses(Map<String, ECSResource> resources) {
+        if (metaClasses == null || metaClasses.resourceNames != resources.keySet()) {
+            metaClasses = new ModMetaClasses(resources)
+        }
+        metaClasses
+    }
+
+}
\ No newline at end of file
@@ -1,13 +1,16 @@
 package com.cardshifter.core.groovy
 
+import com.cardshifter.modapi.actions.TargetDomain
 import com.cardshifter.modapi.base.ComponentRetriever
 import com.cardshifter.modapi.base.CreatureTypeComponent
+import com.cardshifter.modapi.base.ECSGame
 import com.cardshifter.modapi.base.Entity
 import com.cardshifter.modapi.base.PlayerComponent
 import com.cardshifter.modapi.cards.CardComponent
 import com.cardshifter.modapi.cards.Cards
 import com.cardshifter.modapi.phase.PhaseController
 import com.cardshifter.modapi.players.Players
+import com.cardshifter.modapi.resources.ModifierScope
 import net.zomis.cardshifter.ecs.effects.TargetFilter
 
 import java.util.stream.Collectors
@@ -15,6 +18,11 @@ import java.util.stream.Collectors
 class FilterDelegate {
 
     protected List<GroovyFilter> filters = []
+    /**
+     * The zones and creature types that all matching entities are restricted to, or null if there is no such restriction
+     */
+    protected Set<String> zones
+    protected Set<String> creatureTypes
 
     static FilterDelegate fromClosure(Closure closure) {
         FilterDelegate filter = new FilterDelegate()
@@ -24,10 +32,31 @@ class FilterDelegate {
         return filter
     }
 
+    /**
+     * Find the cards and players that match this filter, using the live queries of the game instead of checking every entity.
+     * Other entities, such as zones and the game itself, are never matched even if the filter would accept them,
+     * for example with a filter that only uses <code>not</code>. They cannot be affected by effects anyway.
+     * The result is ordered by id, like {@link ECSGame#findEntities} which was used before.
+     *
+     * @param source The entity that the filter is relative to
+     * @return The matching entities, ordered by id
+     */
     List<Entity> findMatching(Entity source) {
-        source.game.findEntities({Entity e ->
-            predicate.test(source, e)
+        TargetFilter filter = predicate
+        ECSGame game = source.game
+        List<Entity> result = []
+        game.query(CardComponent).forEach({Entity e ->
+            if (filter.test(source, e)) {
+                result.add(e)
+            }
         })
+        game.query(PlayerComponent).forEach({Entity e ->
+            if (filter.test(source, e)) {
+                result.add(e)
+            }
+        })
+        result.sort(Comparator.comparingInt({Entity e -> e.id}))
+        result
     }
 
     TargetFilter getPredicate() {
@@ -35,6 +64,35 @@ class FilterDelegate {
                .inject(GroovyFilter.getIdentity().predicate) {result, element -> result.and(element.predicate)}
     }
 
+    /**
+     * @return The kind of entities that this filter can match, for indexing resource modifiers
+     */
+    ModifierScope getScope() {
+        new ModifierScope(zones, creatureTypes)
+    }
+
+    /**
+     * @return The entities that this filter can match when used for choosing targets
+     */
+    TargetDomain getTargetDomain() {
+        TargetDomain domain = TargetDomain.cardsOnZonesNamed(zones)
+        if (zones == null) {
+            domain = domain.or(TargetDomain.players())
+        }
+        if (creatureTypes != null) {
+            domain = domain.withComponent(CreatureTypeComponent)
+        }
+        domain
+    }
+
+    private static Set<String> restrict(Set<String> previous, String... values) {
+        Set<String> result = new LinkedHashSet<>(Arrays.asList(values))
+        if (previous != null) {
+            result.retainAll(previous)
+        }
+        result
+    }
+
     String getDescription() {
         filters.stream()
                .map({filter -> filter.description})
@@ -70,6 +128,7 @@ class FilterDelegate {
     }
 
     def creatureType(String... type) {
+        creatureTypes = restrict(creatureTypes, type)
         filters.add(new GroovyFilter(
             predicate: {Entity source, Entity target ->
                 target.getComponent(CreatureTypeComponent)?.hasAny(type) as boolean
@@ -79,6 +138,7 @@ class FilterDelegate {
     }
 
     def zone(String... zone) {
+        zones = restrict(zones, zone)
         filters.add(new GroovyFilter(
             predicate: {Entity source, Entity target ->
                 CardComponent cardComponent = target.getComponent(CardComponent)
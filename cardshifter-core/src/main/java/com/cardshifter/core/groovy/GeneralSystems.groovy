@@ -36,6 +36,7 @@ import com.cardshifter.modapi.cards.PlayFromHandSystem
 import com.cardshifter.modapi.cards.RemoveDeadEntityFromZoneSystem
 import com.cardshifter.modapi.cards.ZoneChangeEvent
 import com.cardshifter.modapi.cards.ZoneComponent
+import com.cardshifter.modapi.events.EntityEvent
 import com.cardshifter.modapi.events.EntityRemoveEvent
 import com.cardshifter.modapi.events.IEvent
 import com.cardshifter.modapi.phase.GainResourceSystem
@@ -131,7 +132,7 @@ public class GeneralSystems {
         addEffect(entity,
                 eff.described(effect.descriptionList.collect(lineTransform).join('\n'),
                         eff.giveSelf(
-                                eff.triggerSystemBefore(eventClass,
+                                eff.triggerBefore(eventClass,
                                         {Entity me, T event -> predicate.test(me, event)},
                                         {Entity source, T event -> effect.perform(source)}
                                 )
@@ -146,7 +147,7 @@ public class GeneralSystems {
         addEffect(entity,
                 eff.described(effect.descriptionList.collect(lineTransform).join('\n'),
                         eff.giveSelf(
-                                eff.triggerSystem(eventClass,
+                                eff.trigger(eventClass,
                                         {Entity me, T event -> predicate.test(me, event)},
                                         {Entity source, T event -> effect.perform(source)}
                                 )
@@ -155,6 +156,23 @@ public class GeneralSystems {
         )
     }
 
+    /**
+     * Like triggerBefore, but only informed about the events that are about the entity itself
+     */
+    static <T extends EntityEvent> void selfTriggerBefore(Entity entity, Closure lineTransform, Class<T> eventClass, Closure closure) {
+        EffectDelegate effect = EffectDelegate.create(closure, false)
+        def eff = new Effects();
+        addEffect(entity,
+                eff.described(effect.descriptionList.collect(lineTransform).join('\n'),
+                        eff.giveSelf(
+                                eff.selfTriggerBefore(eventClass,
+                                        {Entity source, T event -> effect.perform(source)}
+                                )
+                        )
+                )
+        )
+    }
+
     private static boolean ownerMatch(String str, Entity expected, Entity actual) {
         if (str == 'your') {
             return expected == actual
@@ -177,7 +195,7 @@ public class GeneralSystems {
             TargetFilter resultFilter = {Entity source, Entity target ->
                 filterDelegate.predicate.test(source, target)
             }
-            entity.addComponent(new FilterComponent(resultFilter))
+            entity.addComponent(new FilterComponent(resultFilter, filterDelegate.targetDomain))
         }
 
         def targets(Map map, Closure closure) {
@@ -195,44 +213,49 @@ public class GeneralSystems {
         }
     }
 
-    static def setup(ECSGame game) {
+    /**
+     * Add the properties and methods that mods can use on entities
+     *
+     * @param entityMeta The meta class for the entities of a mod
+     */
+    static void entityMeta(ExpandoMetaClass entityMeta) {
         // this adds properties to entities so that it's possible to write `entity.name` to get the name (if there is one)
-        game.getEntityMeta().getName << {Attributes.NAME.getOrDefault(delegate, null)}
-        game.getEntityMeta().getFlavor << {Attributes.FLAVOR.getOrDefault(delegate, null)}
-        game.getEntityMeta().getImagePath << {Attributes.IMAGE_PATH.getOrDefault(delegate, null)}
-        game.getEntityMeta().getOwner << {Players.findOwnerFor(delegate)}
-        game.getEntityMeta().getCard << {delegate.getComponent(CardComponent)}
-        game.getEntityMeta().getDeck << {delegate.getComponent(DeckComponent)}
-        game.getEntityMeta().getHand << {delegate.getComponent(HandComponent)}
-        game.getEntityMeta().getBattlefield << {delegate.getComponent(BattlefieldComponent)}
-        game.getEntityMeta().getZone << {
+        entityMeta.getName << {Attributes.NAME.getOrDefault(delegate, null)}
+        entityMeta.getFlavor << {Attributes.FLAVOR.getOrDefault(delegate, null)}
+        entityMeta.getImagePath << {Attributes.IMAGE_PATH.getOrDefault(delegate, null)}
+        entityMeta.getOwner << {Players.findOwnerFor(delegate)}
+        entityMeta.getCard << {delegate.getComponent(CardComponent)}
+        entityMeta.getDeck << {delegate.getComponent(DeckComponent)}
+        entityMeta.getHand << {delegate.getComponent(HandComponent)}
+        entityMeta.getBattlefield << {delegate.getComponent(BattlefieldComponent)}
+        entityMeta.getZone << {
             // get the current zone of the card
             CardComponent card = delegate.getCard()
             return card ? card.currentZone : null
         }
-        game.getEntityMeta().getCreatureType << {delegate.getComponent(CreatureTypeComponent)}
-        game.getEntityMeta().getActions << {delegate.getComponent(ActionComponent)}
-        game.getEntityMeta().getAi << {delegate.getComponent(AIComponent)}
-        game.getEntityMeta().getPlayer << {delegate.getComponent(PlayerComponent)}
-        game.getEntityMeta().getOpponent << {
+        entityMeta.getCreatureType << {delegate.getComponent(CreatureTypeComponent)}
+        entityMeta.getActions << {delegate.getComponent(ActionComponent)}
+        entityMeta.getAi << {delegate.getComponent(AIComponent)}
+        entityMeta.getPlayer << {delegate.getComponent(PlayerComponent)}
+        entityMeta.getOpponent << {
             Players.getNextPlayer(Players.findOwnerFor(delegate as Entity))
         }
-        game.getEntityMeta().drawCards << {Integer count ->
+        entityMeta.drawCards << {Integer count ->
             for (int i = 0; i < count; i++) {
                 DrawStartCards.drawCard(delegate as Entity)
             }
         }
-        game.getEntityMeta().drawCard << {
+        entityMeta.drawCard << {
             DrawStartCards.drawCard(delegate as Entity)
         }
-        game.getEntityMeta().moveTo << {String name ->
+        entityMeta.moveTo << {String name ->
             Entity e = delegate as Entity
             CardComponent card = e.getComponent(CardComponent)
             Collection<ZoneComponent> zones = card.owner.getSuperComponents(ZoneComponent)
             def zone = zones.find {it.name == name}
             card.moveToBottom(zone)
         }
-        game.getEntityMeta().moveTo << {String owner, String name ->
+        entityMeta.moveTo << {String owner, String name ->
             Entity e = delegate as Entity
             CardComponent card = e.getComponent(CardComponent)
             Entity zoneOwner = card.owner
@@ -247,7 +270,9 @@ public class GeneralSystems {
             def zone = zones.find {it.name == name}
             card.moveToBottom(zone)
         }
+    }
 
+    static def setup(ECSGame game) {
         CardDelegate.metaClass.onEndOfTurn << {Closure closure ->
             onEndOfTurn('your', closure)
         }
@@ -267,8 +292,7 @@ public class GeneralSystems {
         }
 
         CardDelegate.metaClass.onDeath << {Closure closure ->
-            triggerBefore((Entity) entity(), { "When this dies, $it" }, EntityRemoveEvent.class,
-                    {Entity source, EntityRemoveEvent event -> source == event.entity}, closure)
+            selfTriggerBefore((Entity) entity(), { "When this dies, $it" }, EntityRemoveEvent.class, closure)
         }
 
         CardDelegate.metaClass.spell << {String actionName ->
@@ -19,12 +19,21 @@ public class GroovyMod {
     File modDirectory
     ECSGame game
     ScriptRunner scriptRunner
+    CardLibrary cardLibrary = new CardLibrary()
+    /**
+     * The version of the scripts when this game started, see {@link ScriptCache#checkVersion()}
+     */
+    long scriptVersion
     final CardDelegate cardDelegate = new CardDelegate(mod: this)
     private List<Closure> configClosure = []
     private List<Closure> setupClosure = []
     private List<Closure> rulesClosure = []
     private Map<String, ECSResource> knownResources = [:]
     @PackageScope Map<String, List<Closure>> cardMethodListeners = [:]
+    /**
+     * The ids of the cards that have been declared in this game
+     */
+    @PackageScope Set<String> declaredCardIds = new HashSet<>()
 
     @Deprecated
     ECSResource createResource(String name) {
@@ -33,6 +42,10 @@ public class GroovyMod {
         return res
     }
 
+    /**
+     * Run a closure after a card method, or after each card closure for the method '#after'.
+     * Like card closures, these only run for the cards of the first game of the mod, see {@link CardLibrary}.
+     */
     void onCard(String method, Closure closure) {
         cardMethodListeners.putIfAbsent(method, new ArrayList<Closure>())
         cardMethodListeners[method].add(closure)
@@ -86,31 +99,17 @@ public class GroovyMod {
 
     void declareConfiguration(ECSGame game) {
         this.game = game
-        def entityMeta = new ExpandoMetaClass(Entity, false, true)
-        game.metaClass.getEntityMeta << {
-            entityMeta
-        }
-        game.metaClass.getPlayers << {
-            Players.getPlayersInGame(delegate)
-        }
-        game.metaClass.resource << {String resourceName ->
-            resource(resourceName)
-        }
+        game.setResourceRegistry(cardLibrary.resourceRegistry)
         println "Known resources is $knownResources"
-        knownResources.forEach {key, value ->
-            def lowerCaseKey = key.toLowerCase().capitalize()
-            game.entityMeta."get$lowerCaseKey" << {
-                value.retriever.getOrDefault(delegate, 0)
-            }
-            game.entityMeta."set$lowerCaseKey" << {int newValue ->
-                value.retriever.set(delegate, newValue)
-            }
-        }
-        entityMeta.initialize()
+        ModMetaClasses metaClasses = cardLibrary.metaClasses(knownResources)
+        game.setMetaClass(metaClasses.gameMeta)
+        ExpandoMetaClass entityMeta = metaClasses.entityMeta
         this.game.getEvents().registerHandlerAfter(this, EntityCreatedEvent, {e ->
-            e.entity.setMetaClass(game.entityMeta)
+            e.entity.setMetaClass(entityMeta)
         })
         enableMeta(game)
+        // the card delegate was created before the card methods were added to the meta class of its class
+        cardDelegate.setMetaClass(GroovySystem.getMetaClassRegistry().getMetaClass(CardDelegate))
         def confDelegate = new ConfigDelegate(game: game, mod: this, cardDelegate: cardDelegate)
 
         MaxInDeck maxInDeck = new MaxInDeck()
@@ -209,7 +208,7 @@ class SetupDelegate {
 
             for (int i = 0; i < count; i++) {
                 def existing = game.getEntity(entityId);
-                def copy = existing.copy();
+                def copy = existing.lazyCopy();
                 deck.addOnBottom(copy);
             }
         }
@@ -3,25 +3,32 @@ package com.cardshifter.core.groovy
 import com.cardshifter.core.modloader.GroovyModInterface
 import com.cardshifter.core.modloader.ECSModTest
 import com.cardshifter.modapi.base.ECSGame
-import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.runtime.InvokerHelper
 
 class GroovyRunner implements GroovyModInterface {
 
     final String name
     final File modDirectory
     private GroovyMod groovyMod
-    final ClassLoader classLoader
+    final ScriptCache scripts
+    final CardLibrary cardLibrary
 
-    GroovyRunner(File dir, String name, ClassLoader cl) {
+    GroovyRunner(File dir, String name) {
+        this(dir, name, new ScriptCache(dir), new CardLibrary())
+    }
+
+    GroovyRunner(File dir, String name, ScriptCache scripts, CardLibrary cardLibrary) {
         this.name = name
         this.modDirectory = dir
-        this.classLoader = cl
+        this.scripts = scripts
+        this.cardLibrary = cardLibrary
     }
 
     @Override
     void declareConfiguration(ECSGame game) {
-        def scriptRunner = new ScriptRunner(classLoader)
-        this.groovyMod = new GroovyMod(modDirectory: modDirectory, scriptRunner: scriptRunner)
+        def scriptRunner = new ScriptRunner(scripts)
+        this.groovyMod = new GroovyMod(modDirectory: modDirectory, scriptRunner: scriptRunner, cardLibrary: cardLibrary,
+                scriptVersion: scripts.checkVersion())
 
         File file = new File(modDirectory, "Game.groovy")
         scriptRunner.runScript(file, groovyMod)
@@ -43,7 +50,7 @@ class GroovyRunner implements GroovyModInterface {
         }
 
         def delegate = new TestDelegate(tests: result, mod: this)
-        def scriptRunner = new ScriptRunner(classLoader)
+        def scriptRunner = new ScriptRunner(scripts)
         scriptRunner.runScript(file, delegate)
 
         return result
@@ -60,19 +67,16 @@ class GroovyRunner implements GroovyModInterface {
 
 class ScriptRunner {
 
-    final ClassLoader classLoader
+    final ScriptCache scripts
     final Binding binding
 
-    ScriptRunner(ClassLoader cl) {
-        this.classLoader = cl
+    ScriptRunner(ScriptCache scripts) {
+        this.scripts = scripts
         this.binding = new Binding()
     }
 
     void runScript(File file, delegate) {
-        CompilerConfiguration config = new CompilerConfiguration()
-        config.setScriptBaseClass(DelegatingScript.class.getName())
-        GroovyShell shell = new GroovyShell(classLoader, binding, config)
-        DelegatingScript script = (DelegatingScript) shell.parse(file)
+        DelegatingScript script = (DelegatingScript) InvokerHelper.createScript(scripts.scriptClass(file), binding)
         script.setDelegate(delegate)
         script.run()
     }
@@ -3,6 +3,8 @@ package com.cardshifter.core.groovy
 import com.cardshifter.api.config.DeckConfig
 import com.cardshifter.modapi.attributes.Attributes
 import com.cardshifter.modapi.attributes.ECSAttributeMap
+import com.cardshifter.modapi.base.Component
+import com.cardshifter.modapi.base.CopyableComponent
 import com.cardshifter.modapi.base.ECSGame
 import com.cardshifter.modapi.base.Entity
 import com.cardshifter.modapi.players.Players
@@ -27,18 +29,38 @@ class MaxInDeck {
 
     void initialize(ECSGame game) {
         CardDelegate.metaClass.maxInDeck << {int count ->
-            Entity e = entity()
-            cardCounts.put(e.getComponent(ECSAttributeMap).get(Attributes.ID).get().get(), count)
+            entity().addComponent(new MaxInDeckComponent(count))
         }
         CardDelegate.metaClass.token << {
-            Entity e = entity()
-            cardCounts.put(e.getComponent(ECSAttributeMap).get(Attributes.ID).get().get(), 0)
+            entity().addComponent(new MaxInDeckComponent(0))
         }
     }
 
     void afterConfig(ECSGame game) {
+        for (Entity card in game.getEntitiesWithComponent(MaxInDeckComponent)) {
+            String id = card.getComponent(ECSAttributeMap).get(Attributes.ID).get().get()
+            cardCounts.put(id, card.getComponent(MaxInDeckComponent).count)
+        }
         def players = Players.getPlayersInGame(game)
         players.forEach({e -> setMaxCardCounts.call(e)})
     }
 
 }
+
+/**
+ * The maximum number of copies of a card that can be put in a deck, kept on the card so that it follows copies of the card
+ */
+class MaxInDeckComponent extends Component implements CopyableComponent {
+
+    final int count
+
+    MaxInDeckComponent(int count) {
+        this.count = count
+    }
+
+    @Override
+    Component copy(Entity copyTo) {
+        new MaxInDeckComponent(count)
+    }
+
+}
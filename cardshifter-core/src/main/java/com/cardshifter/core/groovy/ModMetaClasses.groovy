@@ -0,0 +1,42 @@
+package com.cardshifter.core.groovy
+
+import com.cardshifter.modapi.base.ECSGame
+import com.cardshifter.modapi.base.Entity
+import com.cardshifter.modapi.players.Players
+import com.cardshifter.modapi.resources.ECSResource
+
+/**
+ * The meta classes for the games and entities of a mod, such as <code>game.players</code> and <code>card.health</code>.
+ * They are created once and then shared by all games of the mod, and are never modified after they have been created.
+ */
+class ModMetaClasses {
+
+    final Set<String> resourceNames
+    final ExpandoMetaClass entityMeta
+    final ExpandoMetaClass gameMeta
+
+    /**
+     * @param resources The resources of the mod, by upper case name
+     */
+    ModMetaClasses(Map<String, ECSResource> resources) {
+        Map<String, ECSResource> known = new LinkedHashMap<>(resources)
+        this.resourceNames = Collections.unmodifiableSet(known.keySet())
+
+        this.entityMeta = new ExpandoMetaClass(Entity, false, true)
+        ResourceAccessors.register(entityMeta, known)
+        GeneralSystems.entityMeta(entityMeta)
+        entityMeta.initialize()
+
+        this.gameMeta = new ExpandoMetaClass(ECSGame, false, true)
+        gameMeta.getPlayers << {
+            Players.getPlayersInGame(delegate)
+        }
+        gameMeta.resource << {String resourceName ->
+            ECSResource result = known[resourceName.toUpperCase()]
+            assert result : "Resource with name $resourceName not found. Known resources is $known"
+            result
+        }
+        gameMeta.initialize()
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.cardshifter.core.groovy
+
+import com.cardshifter.modapi.base.Entity
+import com.cardshifter.modapi.resources.ECSResource
+import com.cardshifter.modapi.resources.ResourceRetriever
+import groovy.transform.CompileStatic
+
+/**
+ * Statically compiled getters and setters for the resources of a mod, such as <code>card.health</code>.
+ * The resource of each accessor is resolved when the mod is loaded, so using an accessor is a direct call to its retriever.
+ */
+@CompileStatic
+class ResourceAccessors {
+
+    /**
+     * Add a getter and a setter for each resource to a meta class for entities
+     *
+     * @param entityMeta The meta class to add the accessors to
+     * @param resources The resources, by name
+     */
+    static void register(ExpandoMetaClass entityMeta, Map<String, ECSResource> resources) {
+        resources.each {String name, ECSResource resource ->
+            String property = name.toLowerCase().capitalize()
+            ResourceRetriever retriever = resource.retriever
+            entityMeta.registerInstanceMethod('get' + property, new Getter(retriever))
+            entityMeta.registerInstanceMethod('set' + property, new Setter(retriever))
+        }
+    }
+
+    /**
+     * The retriever is stored as the owner of the closure, as fields of closures are set through their properties
+     */
+    private static class Getter extends Closure<Integer> {
+        Getter(ResourceRetriever retriever) {
+            super(retriever)
+        }
+
+        Integer doCall() {
+            ((ResourceRetriever) getOwner()).getOrDefault((Entity) getDelegate(), 0)
+        }
+    }
+
+    private static class Setter extends Closure<Void> {
+        Setter(ResourceRetriever retriever) {
+            super(retriever)
+        }
+
+        void doCall(int value) {
+            ((ResourceRetriever) getOwner()).set((Entity) getDelegate(), value)
+        }
+    }
+
+}
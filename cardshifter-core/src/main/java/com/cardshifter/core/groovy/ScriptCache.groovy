@@ -0,0 +1,258 @@
+package com.cardshifter.core.groovy
+
+import com.cardshifter.modapi.base.Entity
+import groovy.io.FileType
+import org.apache.log4j.LogManager
+import org.apache.log4j.Logger
+import org.codehaus.groovy.ast.ClassNode
+import org.codehaus.groovy.control.CompilationUnit
+import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.control.SourceUnit
+
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+import java.util.concurrent.TimeUnit
+
+/**
+ * The compiled scripts of a mod, shared by all games of the mod.
+ * A script is only compiled again when its file has been modified.
+ * If a compiled directory is set, the compiled classes are also stored on disk, so that they can be used after a restart.
+ */
+class ScriptCache {
+
+    private static final Logger logger = LogManager.getLogger(ScriptCache)
+
+    /**
+     * The file in a compiled script directory that contains the name of the script class.
+     * It is written last, so a directory without it is incomplete.
+     */
+    private static final String SCRIPT_CLASS_FILE = 'script-class'
+
+    /**
+     * Scripts are compiled to a temporary directory with this suffix before it is moved to its place
+     */
+    private static final String TEMP_SUFFIX = '.tmp'
+
+    /**
+     * How old a temporary directory needs to be before it is seen as left behind by a crash rather than
+     * being in use by another server that shares the compiled directory
+     */
+    private static final long TEMP_MAX_AGE = TimeUnit.HOURS.toMillis(1)
+
+    /**
+     * A hash of the Cardshifter classes that the scripts are compiled against, see {@link #codeHash()}
+     */
+    private static String codeHash
+
+    private final File modDirectory
+    private ClassLoader classLoader
+    private File compiledDirectory
+    private final Map<File, CompiledScript> scripts = [:]
+    /**
+     * Increased whenever a script that has been compiled is modified
+     */
+    private long version
+
+    ScriptCache(File modDirectory) {
+        this.modDirectory = modDirectory
+    }
+
+    /**
+     * @return The class loader that the scripts of the mod are compiled with
+     */
+    synchronized ClassLoader getClassLoader() {
+        if (classLoader == null) {
+            URL groovyURL = com.cardshifter.core.modloader.GroovyMod.getResource('')
+            GroovyScriptEngine scriptEngine = new GroovyScriptEngine([groovyURL, modDirectory.toURI().toURL()] as URL[])
+            scriptEngine.setConfig(new CompilerConfiguration())
+            classLoader = scriptEngine.getGroovyClassLoader()
+        }
+        classLoader
+    }
+
+    /**
+     * Set the directory to store compiled scripts in. Scripts are stored in a sub-directory named by a hash
+     * of their content, the Groovy version and the Cardshifter classes, so the directory can be shared by several mods and servers.
+     * Temporary directories that were left behind by a crash while compiling are deleted.
+     *
+     * @param compiledDirectory The directory to use, or null to only keep compiled scripts in memory
+     */
+    synchronized void setCompiledDirectory(File compiledDirectory) {
+        this.compiledDirectory = compiledDirectory
+        if (compiledDirectory) {
+            deleteAbandonedTempDirectories(compiledDirectory)
+        }
+    }
+
+    private static void deleteAbandonedTempDirectories(File compiledDirectory) {
+        long maxLastModified = System.currentTimeMillis() - TEMP_MAX_AGE
+        compiledDirectory.listFiles()?.each { File temp ->
+            if (temp.isDirectory() && temp.name.contains(TEMP_SUFFIX) && temp.lastModified() < maxLastModified) {
+                logger.info("Deleting abandoned compiled script directory $temp")
+                temp.deleteDir()
+            }
+        }
+    }
+
+    /**
+     * Check whether any script has been modified since it was compiled. The version is increased when a script has been modified,
+     * so that what was created by running the previous scripts, such as the cards of a {@link CardLibrary}, can be dropped.
+     *
+     * @return The current version of the scripts
+     */
+    synchronized long checkVersion() {
+        if (scripts.entrySet().removeIf({ it.key.lastModified() != it.value.lastModified })) {
+            version++
+        }
+        version
+    }
+
+    /**
+     * Get the compiled class of a script, compiling it if it has not been compiled since it was last modified
+     *
+     * @param file The script file
+     * @return The script class, which has {@link DelegatingScript} as base class
+     */
+    synchronized Class<? extends DelegatingScript> scriptClass(File file) {
+        File key = file.getCanonicalFile()
+        long lastModified = key.lastModified()
+        CompiledScript compiled = scripts[key]
+        if (compiled == null || compiled.lastModified != lastModified) {
+            if (compiled != null) {
+                version++
+            }
+            Class<? extends DelegatingScript> scriptClass = compiledDirectory ? storedClass(key) : compile(key)
+            compiled = new CompiledScript(lastModified, scriptClass)
+            scripts[key] = compiled
+        }
+        compiled.scriptClass
+    }
+
+    private static CompilerConfiguration configuration() {
+        CompilerConfiguration config = new CompilerConfiguration()
+        config.setScriptBaseClass(DelegatingScript.class.getName())
+        config
+    }
+
+    private Class<? extends DelegatingScript> compile(File file) {
+        GroovyClassLoader loader = new GroovyClassLoader(getClassLoader(), configuration())
+        loader.parseClass(file)
+    }
+
+    /**
+     * Load a script from the compiled directory, compiling it to the directory first if needed
+     */
+    private Class<? extends DelegatingScript> storedClass(File file) {
+        File directory = new File(compiledDirectory, hash(file))
+        File classNameFile = new File(directory, SCRIPT_CLASS_FILE)
+        if (!classNameFile.exists()) {
+            compileTo(file, directory)
+        } else {
+            logger.info("Using compiled $file from $directory")
+        }
+        ClassLoader loader = new StoredScriptLoader(directory, getClassLoader())
+        loader.loadClass(classNameFile.text.trim()).asSubclass(DelegatingScript)
+    }
+
+    private void compileTo(File file, File directory) {
+        compiledDirectory.mkdirs()
+        File temp = Files.createTempDirectory(compiledDirectory.toPath(), directory.name + TEMP_SUFFIX).toFile()
+        CompilerConfiguration config = configuration()
+        config.setTargetDirectory(temp)
+        CompilationUnit unit = new CompilationUnit(config, null, new GroovyClassLoader(getClassLoader(), config))
+        SourceUnit source = unit.addSource(file)
+        unit.compile()
+        ClassNode scriptClass = source.getAST().getClasses().find {it.superClass.name == DelegatingScript.name}
+        new File(temp, SCRIPT_CLASS_FILE).text = scriptClass.name
+        try {
+            Files.move(temp.toPath(), directory.toPath(), StandardCopyOption.ATOMIC_MOVE)
+            logger.info("Compiled $file to $directory")
+        } catch (IOException ex) {
+            // another server may have compiled the same script at the same time
+            temp.deleteDir()
+            if (!new File(directory, SCRIPT_CLASS_FILE).exists()) {
+                throw ex
+            }
+        }
+    }
+
+    private static String hash(File file) {
+        MessageDigest digest = MessageDigest.getInstance('SHA-256')
+        digest.update(GroovySystem.getVersion().getBytes('UTF-8'))
+        digest.update(codeHash().getBytes('UTF-8'))
+        digest.update(DelegatingScript.name.getBytes('UTF-8'))
+        digest.update(file.name.getBytes('UTF-8'))
+        digest.update(file.bytes)
+        digest.digest().encodeHex().toString()
+    }
+
+    /**
+     * Hash the jars or class directories of Cardshifter core and the mod API, which contain the delegates
+     * that the scripts are compiled against, so that scripts are compiled again when Cardshifter is updated.
+     * The hash is computed once.
+     *
+     * @return The hash of the classes
+     */
+    private static synchronized String codeHash() {
+        if (codeHash == null) {
+            MessageDigest digest = MessageDigest.getInstance('SHA-256')
+            List<URL> locations = [ScriptCache, Entity].collect { it.protectionDomain.codeSource?.location }
+            for (URL location : locations.findAll().unique()) {
+                File code = new File(location.toURI())
+                List<File> files = []
+                if (code.isDirectory()) {
+                    code.eachFileRecurse(FileType.FILES) { files << it }
+                } else if (code.isFile()) {
+                    files << code
+                }
+                for (File file : files.sort { it.path }) {
+                    digest.update(code.toPath().relativize(file.toPath()).toString().getBytes('UTF-8'))
+                    digest.update(file.bytes)
+                }
+            }
+            codeHash = digest.digest().encodeHex().toString()
+        }
+        codeHash
+    }
+
+    private static class CompiledScript {
+        final long lastModified
+        final Class<? extends DelegatingScript> scriptClass
+
+        CompiledScript(long lastModified, Class<? extends DelegatingScript> scriptClass) {
+            this.lastModified = lastModified
+            this.scriptClass = scriptClass
+        }
+    }
+
+    /**
+     * Loads the classes of a compiled script before asking the mod class loader,
+     * which would otherwise compile the script again if it has the same name as the class
+     */
+    private static class StoredScriptLoader extends URLClassLoader {
+
+        StoredScriptLoader(File directory, ClassLoader parent) {
+            super([directory.toURI().toURL()] as URL[], parent)
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> result = findLoadedClass(name)
+                if (result == null && findResource(name.replace('.', '/') + '.class') != null) {
+                    result = findClass(name)
+                }
+                if (result == null) {
+                    return super.loadClass(name, resolve)
+                }
+                if (resolve) {
+                    resolveClass(result)
+                }
+                return result
+            }
+        }
+
+    }
+
+}
@@ -23,7 +23,7 @@ class TestDelegate {
     }
 
     def doTest(Closure setup, Closure test) {
-        def mod = new GroovyRunner(mod.modDirectory, mod.name, mod.classLoader)
+        def mod = new GroovyRunner(mod.modDirectory, mod.name, mod.scripts, mod.cardLibrary)
         ECSGame game = new ECSGame()
 
         mod.declareConfiguration(game)
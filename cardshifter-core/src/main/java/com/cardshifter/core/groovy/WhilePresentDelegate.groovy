@@ -4,6 +4,7 @@ import com.cardshifter.modapi.base.Entity
 import com.cardshifter.modapi.resources.ECSResource
 import com.cardshifter.modapi.resources.ECSResourceBiStrategy
 import com.cardshifter.modapi.resources.EntityModifier
+import com.cardshifter.modapi.resources.ModifierScope
 import net.zomis.cardshifter.ecs.effects.TargetFilter
 
 import java.util.function.Function
@@ -30,9 +31,10 @@ class WhilePresentDelegate {
         filter.call()
         Predicate<Entity> active = {!it.isRemoved()}
         TargetFilter appliesTo = deleg.predicate
+        ModifierScope scope = deleg.scope
 
         Closure<EntityModifier> closure = {Entity entity ->
-            new EntityModifier(entity, priority, active, appliesTo, strategy)
+            new EntityModifier(entity, priority, active, appliesTo, strategy, scope)
         }
 
         for (ECSResource res : resources) {
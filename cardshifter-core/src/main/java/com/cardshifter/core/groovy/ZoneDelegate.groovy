@@ -25,12 +25,26 @@ class ZoneDelegate {
     }
 
     def card(String name, Closure<?> closure) {
+        String id = name.toLowerCase().replaceAll(" ", "-")
+        // only cards with a name that is unique in the mod can be copied from the card library
+        boolean unique = name && mod.declaredCardIds.add(id)
+        if (!unique) {
+            mod.cardLibrary.exclude(id, mod.scriptVersion)
+        }
+        Entity existing = unique ? mod.cardLibrary.create(id, entity.game, mod.scriptVersion) : null
+        if (existing) {
+            zone.addOnBottom(existing)
+            return
+        }
         def card = entity.game.newEntity()
         def attributes = ECSAttributeMap.createOrGetFor(card)
         attributes.set(Attributes.NAME, name)
-        attributes.set(Attributes.ID, name.toLowerCase().replaceAll(" ", "-"))
+        attributes.set(Attributes.ID, id)
         cardDelegate.createCard(card, closure, Closure.OWNER_FIRST)
         zone.addOnBottom(card)
+        if (unique) {
+            mod.cardLibrary.add(id, card, mod.scriptVersion)
+        }
     }
 
     def card(Closure<?> closure) {
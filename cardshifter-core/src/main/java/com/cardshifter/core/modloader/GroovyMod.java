@@ -1,13 +1,12 @@
 package com.cardshifter.core.modloader;
 
+import com.cardshifter.core.groovy.CardLibrary;
 import com.cardshifter.core.groovy.GroovyRunner;
+import com.cardshifter.core.groovy.ScriptCache;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSMod;
-import groovy.util.GroovyScriptEngine;
-import org.codehaus.groovy.control.CompilerConfiguration;
 
 import java.io.File;
-import java.net.URL;
 import java.util.List;
 
 /**
@@ -19,16 +18,20 @@ public class GroovyMod implements ECSMod {
     private GroovyModInterface script;
 
     public GroovyMod(File directory, String name) {
+        this(directory, name, new ScriptCache(directory), new CardLibrary());
+    }
+
+    /**
+     * @param directory The directory of the mod
+     * @param name The name of the mod
+     * @param scripts The compiled scripts of the mod, shared with other games of the same mod
+     * @param cardLibrary The cards of the mod, shared with other games of the same mod
+     */
+    public GroovyMod(File directory, String name, ScriptCache scripts, CardLibrary cardLibrary) {
         Throwable ex = null;
 
         try {
-            URL groovyURL = GroovyMod.class.getResource("");
-
-            GroovyScriptEngine scriptEngine = new GroovyScriptEngine(new URL[]{groovyURL, directory.toURI().toURL()});
-            CompilerConfiguration config = new CompilerConfiguration();
-            scriptEngine.setConfig(config);
-
-            script = new GroovyRunner(directory, name, scriptEngine.getGroovyClassLoader());
+            script = new GroovyRunner(directory, name, scripts, cardLibrary);
         } catch (Exception | AssertionError e) {
             ex = e;
         }
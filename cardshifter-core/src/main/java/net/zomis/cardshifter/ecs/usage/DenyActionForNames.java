@@ -1,6 +1,7 @@
 package net.zomis.cardshifter.ecs.usage;
 
 import com.cardshifter.modapi.actions.ActionAllowedCheckEvent;
+import com.cardshifter.modapi.actions.ActionNames;
 import com.cardshifter.modapi.attributes.AttributeRetriever;
 import com.cardshifter.modapi.attributes.Attributes;
 import com.cardshifter.modapi.base.ECSGame;
@@ -26,13 +27,10 @@ public class DenyActionForNames implements ECSSystem {
 
     @Override
     public void startGame(ECSGame game) {
-        game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent.class, this::allowCheck);
+        game.getEvents().registerKeyedHandlerAfter(this, ActionAllowedCheckEvent.class, ActionNames.id(action), this::allowCheck);
     }
 
     private void allowCheck(ActionAllowedCheckEvent event) {
-        if (!action.equals(event.getAction().getName())) {
-            return;
-        }
         if (names.contains(name.getOrDefault(event.getEntity(), ""))) {
             event.setAllowed(false);
         }
@@ -0,0 +1,80 @@
+package com.cardshifter.core.groovy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import net.zomis.cardshifter.ecs.EntitySerialization;
+
+import org.junit.Test;
+
+import com.cardshifter.modapi.attributes.Attributes;
+import com.cardshifter.modapi.attributes.ECSAttributeMap;
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.resources.ECSResource;
+import com.cardshifter.modapi.resources.ECSResourceDefault;
+import com.cardshifter.modapi.resources.ECSResourceMap;
+import com.cardshifter.modapi.resources.Resources;
+
+public class CardLibraryTest {
+
+	@Test
+	public void cardsAreCopiedByIdUnlessTheIdIsDeclaredAgain() {
+		CardLibrary library = new CardLibrary();
+		Entity card = new ECSGame().newEntity();
+		ECSResourceMap.createFor(card).set(new ECSResourceDefault("HEALTH"), 3);
+		library.add("goblin", card, 0);
+
+		ECSGame game = new ECSGame();
+		assertEquals(3, new ECSResourceDefault("HEALTH").getFor(library.create("goblin", game, 0)));
+		assertNull(library.create("orc", game, 0));
+
+		library.exclude("goblin", 0);
+		library.add("goblin", card, 0);
+		assertNull(library.create("goblin", game, 0));
+	}
+
+	@Test
+	public void gamesReadTheSharedTemplateUntilTheyChangeTheCard() {
+		ECSResource health = new ECSResourceDefault("HEALTH");
+		CardLibrary library = new CardLibrary();
+		Entity card = new ECSGame().newEntity();
+		ECSResourceMap.createFor(card).set(health, 3);
+		ECSAttributeMap.createFor(card).set(Attributes.NAME, "Goblin");
+		library.add("goblin", card, 0);
+
+		Entity first = library.create("goblin", new ECSGame(), 0);
+		Entity second = library.create("goblin", new ECSGame(), 0);
+		Map<String, Object> info = EntitySerialization.serialize(first);
+		assertEquals(3, info.get("HEALTH"));
+		assertEquals("Goblin", info.get("name"));
+		assertTrue(first.isLazy());
+		ECSResourceMap template = first.read(ECSResourceMap.class, map -> map);
+		assertSame(template, second.read(ECSResourceMap.class, map -> map));
+
+		Resources.retriever(health).set(first, 1);
+		assertNotSame(template, first.read(ECSResourceMap.class, map -> map));
+		assertEquals(1, health.getFor(first));
+		assertEquals(3, health.getFor(second));
+		assertEquals(3, template.getResource(health).get());
+	}
+
+	@Test
+	public void templatesAreDroppedWhenTheScriptsChange() {
+		CardLibrary library = new CardLibrary();
+		Entity card = new ECSGame().newEntity();
+		library.add("goblin", card, 0);
+		assertNotNull(library.create("goblin", new ECSGame(), 0));
+
+		assertNull(library.create("goblin", new ECSGame(), 1));
+		library.add("goblin", card, 0);
+		assertNull(library.create("goblin", new ECSGame(), 1));
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.cardshifter.core.groovy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.codehaus.groovy.runtime.DefaultGroovyMethods;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.junit.Test;
+
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.resources.ECSResource;
+import com.cardshifter.modapi.resources.ECSResourceDefault;
+import com.cardshifter.modapi.resources.ECSResourceMap;
+
+public class ModMetaClassesTest {
+
+	@Test
+	public void gamesOfTheSameModShareMetaClasses() {
+		CardLibrary library = new CardLibrary();
+		ModMetaClasses first = library.metaClasses(resources("HEALTH"));
+		ModMetaClasses second = library.metaClasses(resources("HEALTH"));
+		assertSame(first, second);
+
+		Entity entity = new ECSGame().newEntity();
+		ECSResourceMap.createFor(entity);
+		DefaultGroovyMethods.setMetaClass(entity, second.getEntityMeta());
+		InvokerHelper.setProperty(entity, "health", 5);
+		assertEquals(5, InvokerHelper.getProperty(entity, "health"));
+
+		assertNotSame(first, library.metaClasses(resources("HEALTH", "ATTACK")));
+	}
+
+	private static Map<String, ECSResource> resources(String... names) {
+		Map<String, ECSResource> result = new HashMap<>();
+		for (String name : names) {
+			result.put(name, new ECSResourceDefault(name));
+		}
+		return result;
+	}
+
+}
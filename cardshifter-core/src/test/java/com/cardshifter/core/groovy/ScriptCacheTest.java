@@ -0,0 +1,75 @@
+package com.cardshifter.core.groovy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import groovy.lang.GroovyClassLoader;
+
+public class ScriptCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void compiledScriptsAreReusedAfterRestart() throws IOException {
+		File modDirectory = folder.newFolder("mod");
+		File compiled = folder.newFolder("compiled");
+		File script = new File(modDirectory, "Game.groovy");
+		Files.write(script.toPath(), "answer = 6 * 7".getBytes(StandardCharsets.UTF_8));
+
+		ScriptCache first = new ScriptCache(modDirectory);
+		first.setCompiledDirectory(compiled);
+		assertEquals(42, run(first, script));
+		assertEquals(1, compiled.list().length);
+
+		ScriptCache restarted = new ScriptCache(modDirectory);
+		restarted.setCompiledDirectory(compiled);
+		ClassLoader loader = restarted.scriptClass(script).getClassLoader();
+		assertFalse(loader instanceof GroovyClassLoader);
+		assertEquals(42, run(restarted, script));
+
+		long version = restarted.checkVersion();
+		Files.write(script.toPath(), "answer = 6 * 9".getBytes(StandardCharsets.UTF_8));
+		assertTrue(script.setLastModified(script.lastModified() + 2000));
+		assertEquals(version + 1, restarted.checkVersion());
+		assertEquals(54, run(restarted, script));
+		assertEquals(version + 1, restarted.checkVersion());
+		assertEquals(2, compiled.list().length);
+	}
+
+	@Test
+	public void abandonedTempDirectoriesAreDeleted() throws IOException {
+		File compiled = folder.newFolder("compiled");
+		File abandoned = new File(compiled, "abc.tmp123");
+		File recent = new File(compiled, "def.tmp456");
+		File stored = new File(compiled, "ghi");
+		assertTrue(abandoned.mkdir() && recent.mkdir() && stored.mkdir());
+		long old = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+		assertTrue(abandoned.setLastModified(old) && stored.setLastModified(old));
+
+		new ScriptCache(folder.newFolder("mod")).setCompiledDirectory(compiled);
+		assertFalse(abandoned.exists());
+		assertTrue(recent.exists());
+		assertTrue(stored.exists());
+	}
+
+	private static Object run(ScriptCache scripts, File script) {
+		Map<String, Object> delegate = new HashMap<>();
+		new ScriptRunner(scripts).runScript(script, delegate);
+		return delegate.get("answer");
+	}
+
+}
@@ -8,12 +8,21 @@ import com.cardshifter.modapi.actions.*;
 import com.cardshifter.modapi.base.ComponentRetriever;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.cards.DeckComponent;
+import com.cardshifter.modapi.cards.DrawStartCards;
+import com.cardshifter.modapi.cards.HandComponent;
+import com.cardshifter.modapi.resources.ECSResourceDefault;
+import com.cardshifter.modapi.resources.ECSResourceMap;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -73,4 +82,72 @@ public class ActionTest {
 		assertFalse(actions.getAction(name).isAllowed(entity));
 	}
 
+	@Test
+	public void legalActionsAreOnlyEvaluatedAgainAfterTheStateChanges() {
+		game.startGame();
+		int[] checks = new int[1];
+		ActionComponent actions = retriever.get(entity);
+		actions.addAction(new ECSAction(entity, "Use", action -> ++checks[0] > 0, action -> {}));
+
+		List<ECSAction> legal = Actions.getPossibleActionsFor(entity);
+		assertEquals(1, legal.size());
+		assertSame(legal, Actions.getPossibleActionsFor(entity));
+		assertEquals(1, checks[0]);
+
+		actions.addAction(new ECSAction(entity, "Other", action -> false, action -> {}));
+		assertEquals(1, Actions.getPossibleActionsFor(entity).size());
+		assertEquals(2, checks[0]);
+	}
+
+	@Test
+	public void drawnCardsHaveTheActionsOfTheirPrototype() {
+		Entity player = game.newEntity();
+		DeckComponent deck = new DeckComponent(player);
+		player.addComponents(deck, new HandComponent(player));
+		Entity card = game.newEntity();
+		card.addComponent(new ActionComponent().addAction(new ECSAction(card, "Play", action -> true, action -> {})));
+		deck.addOnBottom(card.lazyCopy());
+		game.startGame();
+		assertEquals(1, Actions.getPossibleActionsFor(player).size());
+
+		Entity drawn = deck.getTopCard();
+		DrawStartCards.drawCard(player);
+		List<ECSAction> legal = Actions.getPossibleActionsFor(player);
+		assertEquals(2, legal.size());
+		assertSame(drawn, legal.get(1).getOwner());
+	}
+
+	@Test
+	public void parallelLegalActionsAreTheSameAsSerial() {
+		game.startGame();
+		ActionComponent actions = retriever.get(entity);
+		for (int i = 0; i < 100; i++) {
+			int number = i;
+			actions.addAction(new ECSAction(entity, "Action " + i, action -> number % 3 == 0, action -> {}));
+		}
+		List<ECSAction> serial = game.getLegalActions().getFor(entity);
+
+		game.getLegalActions().setPool(new ForkJoinPool(4));
+		game.stateChanged();
+		assertEquals(serial, game.getLegalActions().getFor(entity));
+		assertEquals(34, serial.size());
+	}
+
+	@Test
+	public void parallelChecksReadLazyCardsWithoutMaterializingThem() {
+		Entity card = game.newEntity();
+		ECSResourceMap.createFor(card).set(new ECSResourceDefault("Health"), 3);
+		Entity lazy = card.lazyCopy();
+		game.startGame();
+		ActionComponent actions = retriever.get(entity);
+		for (int i = 0; i < 100; i++) {
+			int health = i;
+			actions.addAction(new ECSAction(entity, "Action " + i, action -> new ECSResourceDefault("Health").getFor(lazy) > health, action -> {}));
+		}
+
+		game.getLegalActions().setPool(new ForkJoinPool(4));
+		assertEquals(3, game.getLegalActions().getFor(entity).size());
+		assertTrue(lazy.isLazy());
+	}
+
 }
@@ -1,7 +1,17 @@
 package net.zomis.cardshifter.ecs;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 
@@ -9,6 +19,10 @@ import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.ComponentRetriever;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.EntityQuery;
+import com.cardshifter.modapi.resources.ECSResourceDefault;
+import com.cardshifter.modapi.resources.ECSResourceMap;
+import com.cardshifter.modapi.resources.ResourceValueChange;
 
 public class ECSTest {
 
@@ -22,6 +36,9 @@ public class ECSTest {
 		
 	}
 	
+	private static class OtherComponent extends Component {
+	}
+	
 	@Test
 	public void entityWithHealth() {
 		ECSGame game = new ECSGame();
@@ -33,4 +50,164 @@ public class ECSTest {
 		assertEquals(5, retreiver.get(entity).value);
 	}
 	
+	@Test
+	public void entitiesWithComponentIsKeptUpToDate() {
+		ECSGame game = new ECSGame();
+		Set<Entity> withTest = game.getEntitiesWithComponent(TestComponent.class);
+		assertTrue(withTest.isEmpty());
+		
+		Entity first = game.newEntity().addComponent(new TestComponent(1));
+		Entity second = game.newEntity().addComponent(new TestComponent(2));
+		game.newEntity();
+		
+		withTest = game.getEntitiesWithComponent(TestComponent.class);
+		assertEquals(2, withTest.size());
+		assertTrue(withTest.contains(first));
+		assertTrue(withTest.contains(second));
+		
+		first.destroy();
+		assertEquals(1, withTest.size());
+		assertFalse(withTest.contains(first));
+		assertTrue(withTest.contains(second));
+	}
+	
+	@Test
+	public void queryIsKeptUpToDate() {
+		ECSGame game = new ECSGame();
+		Entity both = game.newEntity().addComponent(new TestComponent(1)).addComponent(new OtherComponent());
+		game.newEntity().addComponent(new TestComponent(2));
+		
+		EntityQuery query = game.query(TestComponent.class, OtherComponent.class);
+		assertSame(query, game.query(OtherComponent.class, TestComponent.class));
+		assertEquals(1, query.size());
+		assertSame(both, query.get(0));
+		
+		Entity later = game.newEntity().addComponent(new OtherComponent());
+		assertFalse(query.contains(later));
+		later.addComponent(new TestComponent(3));
+		assertEquals(2, query.size());
+		assertSame(later, query.get(1));
+		
+		both.destroy();
+		assertEquals(1, query.size());
+		assertSame(later, query.get(0));
+	}
+	
+	@Test
+	public void singleTypeQueryIsShared() {
+		ECSGame game = new ECSGame();
+		EntityQuery query = game.query(TestComponent.class);
+		assertSame(query, game.query(TestComponent.class));
+		assertSame(query, game.query(TestComponent.class, TestComponent.class));
+		
+		Entity entity = game.newEntity().addComponent(new TestComponent(1));
+		assertEquals(1, query.size());
+		assertSame(entity, query.get(0));
+	}
+	
+	@Test
+	public void singletonIsKeptUpToDate() {
+		ECSGame game = new ECSGame();
+		assertNull(game.singletonOptional(TestComponent.class));
+		
+		TestComponent firstComponent = new TestComponent(1);
+		Entity first = game.newEntity().addComponent(firstComponent);
+		assertSame(firstComponent, game.singleton(TestComponent.class));
+		
+		TestComponent secondComponent = new TestComponent(2);
+		game.newEntity().addComponent(secondComponent);
+		try {
+			game.singletonOptional(TestComponent.class);
+			fail("Expected more than one TestComponent to be rejected");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+		
+		first.destroy();
+		assertSame(secondComponent, ComponentRetriever.singleton(game, TestComponent.class));
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void retrieverRequiresAComponentType() {
+		new ComponentRetriever<TestComponent>(null);
+	}
+	
+	@Test
+	public void singletonRetrieverHasTheComponentType() {
+		ECSGame game = new ECSGame();
+		Entity entity = game.newEntity();
+		TestComponent component = new TestComponent(1);
+		game.newEntity().addComponent(component);
+		ComponentRetriever<TestComponent> retriever = ComponentRetriever.singleton(TestComponent.class);
+		assertTrue(retriever.has(entity));
+		assertSame(component, retriever.required(entity));
+	}
+	
+	@Test
+	public void lazyCopyCopiesComponentsWhenFirstRead() {
+		ECSGame game = new ECSGame();
+		Entity card = game.newEntity();
+		ECSResourceMap.createFor(card).set(new ECSResourceDefault("Health"), 3);
+		card.addComponent(new OtherComponent());
+		
+		Entity copy = card.lazyCopy();
+		copy.addComponent(new TestComponent(2));
+		assertTrue(copy.isLazy());
+		assertEquals(2, copy.getComponent(TestComponent.class).value);
+		assertFalse(copy.hasComponent(OtherComponent.class));
+		assertFalse(game.getEntitiesWithComponent(ECSResourceMap.class).contains(copy));
+		
+		long version = game.getStateVersion();
+		assertEquals(3, new ECSResourceDefault("Health").getFor(copy));
+		assertTrue(copy.isLazy());
+		assertEquals(version, game.getStateVersion());
+		assertFalse(game.getEntitiesWithComponent(ECSResourceMap.class).contains(copy));
+		assertNotSame(card.getComponent(ECSResourceMap.class), copy.getComponent(ECSResourceMap.class));
+		assertSame(copy.getComponent(ECSResourceMap.class), copy.getComponent(ECSResourceMap.class));
+	}
+	
+	@Test
+	public void lazyCopyKeepsItsChangesWhenMaterialized() {
+		ECSGame game = new ECSGame();
+		Entity card = game.newEntity();
+		ECSResourceMap.createFor(card).set(new ECSResourceDefault("Health"), 3);
+		List<Entity> changed = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, ResourceValueChange.class, event -> changed.add(event.getEntity()));
+		
+		Entity copy = card.lazyCopy();
+		ECSResourceMap resources = copy.getComponent(ECSResourceMap.class);
+		resources.set(new ECSResourceDefault("Health"), 5);
+		assertEquals(Arrays.asList(copy), changed);
+		assertEquals(3, new ECSResourceDefault("Health").getFor(card));
+		assertEquals(1, copy.getSuperComponents(ECSResourceMap.class).size());
+		assertSame(resources, copy.getSuperComponents(ECSResourceMap.class).iterator().next());
+		
+		copy.materialize();
+		assertFalse(copy.isLazy());
+		assertTrue(game.getEntitiesWithComponent(ECSResourceMap.class).contains(copy));
+		assertSame(resources, copy.getComponent(ECSResourceMap.class));
+		assertEquals(5, new ECSResourceDefault("Health").getFor(copy));
+	}
+	
+	@Test
+	public void lazyCopiesOfLazyCopiesCopyFromTheOriginal() {
+		Entity card = new ECSGame().newEntity();
+		ECSResourceMap resources = ECSResourceMap.createFor(card).set(new ECSResourceDefault("Health"), 3);
+		
+		ECSGame game = new ECSGame();
+		Entity library = card.lazyCopyTo(game);
+		Entity copy = library.lazyCopy();
+		assertEquals(3, new ECSResourceDefault("Health").getFor(copy));
+		copy.getComponent(ECSResourceMap.class).set(new ECSResourceDefault("Health"), 5);
+		assertSame(resources, library.read(ECSResourceMap.class, map -> map));
+		assertEquals(3, new ECSResourceDefault("Health").getFor(library));
+		
+		copy.materialize();
+		assertEquals(5, new ECSResourceDefault("Health").getFor(copy));
+		assertTrue(library.isLazy());
+		assertTrue(game.getEntitiesWithComponent(ECSResourceMap.class).contains(copy));
+		assertFalse(game.getEntitiesWithComponent(ECSResourceMap.class).contains(library));
+	}
+	
 }
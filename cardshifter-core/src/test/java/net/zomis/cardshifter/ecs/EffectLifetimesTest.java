@@ -0,0 +1,77 @@
+package net.zomis.cardshifter.ecs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.cards.BattlefieldComponent;
+import com.cardshifter.modapi.cards.CardComponent;
+import com.cardshifter.modapi.cards.EffectLifetimes;
+import com.cardshifter.modapi.cards.HandComponent;
+import com.cardshifter.modapi.events.EntityCreatedEvent;
+
+import net.zomis.cardshifter.ecs.effects.Effects;
+
+public class EffectLifetimesTest {
+
+	private final ECSGame game = new ECSGame();
+	private final AtomicInteger count = new AtomicInteger();
+	private EffectLifetimes lifetimes;
+	private BattlefieldComponent battlefield;
+	private HandComponent hand;
+	private Entity card;
+
+	@Before
+	public void setup() {
+		Entity player = game.newEntity();
+		battlefield = new BattlefieldComponent(player);
+		hand = new HandComponent(player);
+		player.addComponents(battlefield, hand);
+		card = game.newEntity();
+		battlefield.addOnBottom(card);
+		game.startGame();
+		lifetimes = game.getEffectLifetimes();
+		lifetimes.registerHandlerAfter(card, EntityCreatedEvent.class, event -> count.incrementAndGet());
+	}
+
+	@Test
+	public void effectsEndWhenLeavingBattlefield() {
+		game.newEntity();
+		assertEquals(1, count.get());
+		card.getComponent(CardComponent.class).moveToBottom(battlefield);
+		assertTrue(lifetimes.hasEffects(card));
+		card.getComponent(CardComponent.class).moveToBottom(hand);
+		assertFalse(lifetimes.hasEffects(card));
+		game.newEntity();
+		assertEquals(1, count.get());
+	}
+
+	@Test
+	public void effectsEndWhenDestroyed() {
+		card.destroy();
+		assertFalse(lifetimes.hasEffects(card));
+		game.newEntity();
+		assertEquals(0, count.get());
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void deprecatedTriggerSystemsEndWhenLeavingBattlefield() {
+		Effects effects = new Effects();
+		effects.giveSelf(effects.triggerSystem(EntityCreatedEvent.class, (me, event) -> true, (me, event) -> count.incrementAndGet()))
+			.getEffect().accept(card, null);
+		game.newEntity();
+		assertEquals(2, count.get());
+		card.getComponent(CardComponent.class).moveToBottom(hand);
+		game.newEntity();
+		assertEquals(2, count.get());
+	}
+
+}
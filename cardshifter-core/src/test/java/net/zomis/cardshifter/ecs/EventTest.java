@@ -4,12 +4,18 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
 
 import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.events.EntityRemoveEvent;
+import com.cardshifter.modapi.events.EventHandler;
 import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.KeyedEvent;
+import com.cardshifter.modapi.events.StoppableEvent;
 
 public class EventTest {
 
@@ -26,6 +32,28 @@ public class EventTest {
 		}
 	}
 	
+	private static class TestStoppableEvent implements StoppableEvent {
+		private boolean stopped;
+
+		@Override
+		public boolean isStopped() {
+			return stopped;
+		}
+	}
+	
+	private static class TestKeyedEvent implements KeyedEvent {
+		private final int key;
+
+		public TestKeyedEvent(int key) {
+			this.key = key;
+		}
+
+		@Override
+		public int getEventKey() {
+			return key;
+		}
+	}
+	
 	@Test
 	public void executeTestEvent() {
 		assertEquals(42, value);
@@ -47,4 +75,105 @@ public class EventTest {
 		assertEquals("Test1", pre.get(0).data);
 	}
 	
+	@Test
+	public void stoppedEventSkipsRemainingHandlers() {
+		List<String> called = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, TestStoppableEvent.class, event -> called.add("first"));
+		game.getEvents().registerHandlerAfter(this, TestStoppableEvent.class, event -> {
+			called.add("second");
+			event.stopped = true;
+		});
+		game.getEvents().registerHandlerAfter(this, TestStoppableEvent.class, event -> called.add("third"));
+		
+		game.getEvents().executePostEvent(new TestStoppableEvent());
+		assertEquals(Arrays.asList("first", "second"), called);
+	}
+	
+	@Test
+	public void removeListenersWithIdentifier() {
+		Object other = new Object();
+		List<String> called = new ArrayList<>();
+		game.getEvents().registerHandlerBefore(this, TestEvent.class, event -> called.add("this-before"));
+		game.getEvents().registerHandlerAfter(other, TestEvent.class, event -> called.add("other-after"));
+		game.getEvents().registerHandlerAfter(this, TestStoppableEvent.class, event -> called.add("this-stoppable"));
+		EventHandler<TestEvent> handler = game.getEvents().registerHandlerAfter(other, TestEvent.class, event -> called.add("other-removed"));
+		
+		game.getEvents().removeHandler(handler);
+		game.getEvents().removeListenersWithIdentifier(this);
+		game.executeEvent(new TestEvent("Test"), () -> {});
+		game.getEvents().executePostEvent(new TestStoppableEvent());
+		assertEquals(Arrays.asList("other-after"), called);
+	}
+	
+	@Test
+	public void entityHandlersOnlyReceiveEventsAboutTheirEntity() {
+		Entity first = game.newEntity();
+		Entity second = game.newEntity();
+		List<String> called = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, EntityRemoveEvent.class, event -> called.add("global"));
+		game.getEvents().registerEntityHandlerAfter(this, first, EntityRemoveEvent.class, event -> called.add("first"));
+		
+		game.getEvents().executePostEvent(new EntityRemoveEvent(second));
+		assertEquals(Arrays.asList("global"), called);
+		game.getEvents().executePostEvent(new EntityRemoveEvent(first));
+		assertEquals(Arrays.asList("global", "global", "first"), called);
+		
+		game.getEvents().removeListenersWithIdentifier(this);
+		game.getEvents().executePostEvent(new EntityRemoveEvent(first));
+		assertEquals(3, called.size());
+	}
+	
+	@Test
+	public void entityHandlersRunInRegistrationOrderWithOtherHandlers() {
+		Entity entity = game.newEntity();
+		List<String> called = new ArrayList<>();
+		game.getEvents().registerEntityHandlerAfter(this, entity, EntityRemoveEvent.class, event -> called.add("first"));
+		game.getEvents().registerHandlerAfter(this, EntityRemoveEvent.class, event -> called.add("global"));
+		game.getEvents().registerEntityHandlerAfter(this, entity, EntityRemoveEvent.class, event -> called.add("last"));
+		
+		game.getEvents().executePostEvent(new EntityRemoveEvent(entity));
+		assertEquals(Arrays.asList("first", "global", "last"), called);
+	}
+	
+	@Test
+	public void supertypeHandlersRunInRegistrationOrder() {
+		List<String> called = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, TestStoppableEvent.class, event -> called.add("first"));
+		game.getEvents().registerHandlerAfter(this, StoppableEvent.class, event -> called.add("second"));
+		game.getEvents().registerHandlerAfter(this, TestStoppableEvent.class, event -> called.add("third"));
+		game.getEvents().registerHandlerAfter(this, IEvent.class, event -> called.add("fourth"));
+		
+		game.getEvents().executePostEvent(new TestStoppableEvent());
+		assertEquals(Arrays.asList("first", "second", "third", "fourth"), called);
+		
+		called.clear();
+		game.getEvents().executePostEvent(new TestEvent("Test"));
+		assertEquals(Arrays.asList("fourth"), called);
+		
+		called.clear();
+		EventHandler<IEvent> handler = game.getEvents().registerHandlerAfter(this, IEvent.class, event -> called.add("fifth"));
+		game.getEvents().executePostEvent(new TestEvent("Test"));
+		game.getEvents().removeHandler(handler);
+		game.getEvents().executePostEvent(new TestEvent("Test"));
+		assertEquals(Arrays.asList("fourth", "fifth", "fourth"), called);
+	}
+	
+	@Test
+	public void keyedHandlersOnlyReceiveEventsWithTheirKeyInRegistrationOrder() {
+		List<String> called = new ArrayList<>();
+		game.getEvents().registerKeyedHandlerAfter(this, TestKeyedEvent.class, 1, event -> called.add("first"));
+		game.getEvents().registerHandlerAfter(this, TestKeyedEvent.class, event -> called.add("global"));
+		game.getEvents().registerKeyedHandlerAfter(this, TestKeyedEvent.class, 2, event -> called.add("second"));
+		EventHandler<TestKeyedEvent> handler = game.getEvents().registerKeyedHandlerAfter(this, TestKeyedEvent.class, 1, event -> called.add("last"));
+		
+		game.getEvents().executePostEvent(new TestKeyedEvent(1));
+		assertEquals(Arrays.asList("first", "global", "last"), called);
+		
+		called.clear();
+		game.getEvents().removeHandler(handler);
+		game.getEvents().executePostEvent(new TestKeyedEvent(1));
+		game.getEvents().executePostEvent(new TestKeyedEvent(3));
+		assertEquals(Arrays.asList("first", "global", "global"), called);
+	}
+	
 }
@@ -58,4 +58,17 @@ public class InjectionTest {
 		assertEquals("Main", phases.getCurrentPhase().getName());
 	}
 	
+	@Test
+	public void injectSingletonOfEachGame() {
+		for (int i = 0; i < 2; i++) {
+			ECSGame game = new ECSGame();
+			PhaseController phase = new PhaseController();
+			game.newEntity().addComponent(phase);
+			game.newEntity().addComponent(new PlayerComponent(i, "Tester"));
+			
+			Retrievers.inject(this, game);
+			assertSame(phase, phases);
+		}
+	}
+	
 }
@@ -0,0 +1,99 @@
+package net.zomis.cardshifter.ecs;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.cardshifter.modapi.actions.ActionComponent;
+import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.resources.ECSResource;
+import com.cardshifter.modapi.resources.ECSResourceMap;
+import com.cardshifter.modapi.resources.ResourceRetriever;
+
+/**
+ * Compares checking the legal actions of a large board on the calling thread with checking them in a pool.
+ * Every check reads the resources of all cards on the board, like the target checks of area effects.
+ * Run with the number of cards and the number of threads as optional arguments.
+ * Fails if the pool finds other legal actions than the calling thread.
+ */
+public class LegalActionsBenchmark {
+
+	private enum Resources implements ECSResource {
+		HEALTH
+	}
+
+	private static final int ACTIONS_PER_CARD = 3;
+	private static final int ROUNDS = 20;
+	private static final int REPEATS = 5;
+
+	public static void main(String[] args) {
+		int cards = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		ECSGame game = createGame(cards);
+		Entity performer = game.newEntity();
+
+		List<ECSAction> expected = evaluate(game, performer);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		// alternate between the two and keep the fastest, so that neither gains from running after the other
+		long serial = Long.MAX_VALUE;
+		long parallel = Long.MAX_VALUE;
+		for (int i = 0; i < REPEATS; i++) {
+			game.getLegalActions().setPool(null);
+			serial = Math.min(serial, measure(game, performer, expected));
+			game.getLegalActions().setPool(pool);
+			parallel = Math.min(parallel, measure(game, performer, expected));
+		}
+		pool.shutdown();
+
+		System.out.printf("%d cards, %d actions, %d threads, %d cores%n", cards, cards * ACTIONS_PER_CARD,
+				threads, Runtime.getRuntime().availableProcessors());
+		System.out.printf("serial:   %.2f ms per evaluation%n", serial / 1e6 / ROUNDS);
+		System.out.printf("parallel: %.2f ms per evaluation (%.2fx)%n", parallel / 1e6 / ROUNDS, (double) serial / parallel);
+	}
+
+	private static ECSGame createGame(int cards) {
+		ECSGame game = new ECSGame();
+		ResourceRetriever health = ResourceRetriever.forResource(Resources.HEALTH);
+		for (int i = 0; i < cards; i++) {
+			Entity card = game.newEntity();
+			ECSResourceMap.createFor(card).set(Resources.HEALTH, i);
+			ActionComponent actions = new ActionComponent();
+			card.addComponent(actions);
+			for (int j = 0; j < ACTIONS_PER_CARD; j++) {
+				int threshold = j * cards / ACTIONS_PER_CARD;
+				actions.addAction(new ECSAction(card, "Action " + j, action -> {
+					int stronger = 0;
+					for (Entity other : game.getEntitiesWithComponent(ECSResourceMap.class)) {
+						if (health.getFor(other) > health.getFor(action.getOwner())) {
+							stronger++;
+						}
+					}
+					return stronger > threshold;
+				}, action -> {}));
+			}
+		}
+		game.startGame();
+		return game;
+	}
+
+	private static long measure(ECSGame game, Entity performer, List<ECSAction> expected) {
+		// warm up, so that both are measured with compiled code
+		for (int i = 0; i < ROUNDS; i++) {
+			evaluate(game, performer);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			if (!evaluate(game, performer).equals(expected)) {
+				throw new AssertionError("Legal actions differ from the actions found on the calling thread");
+			}
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static List<ECSAction> evaluate(ECSGame game, Entity performer) {
+		game.stateChanged();
+		return game.getLegalActions().getFor(performer);
+	}
+
+}
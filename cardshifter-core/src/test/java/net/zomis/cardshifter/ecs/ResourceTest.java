@@ -1,11 +1,20 @@
 package net.zomis.cardshifter.ecs;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.cardshifter.modapi.actions.ActionComponent;
+import com.cardshifter.modapi.actions.ECSAction;
 import com.cardshifter.modapi.base.ComponentRetriever;
+import com.cardshifter.modapi.base.CreatureTypeComponent;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
 import com.cardshifter.modapi.phase.Phase;
@@ -13,8 +22,13 @@ import com.cardshifter.modapi.phase.PhaseController;
 import com.cardshifter.modapi.phase.PhaseStartEvent;
 import com.cardshifter.modapi.resources.ECSResource;
 import com.cardshifter.modapi.resources.ECSResourceData;
+import com.cardshifter.modapi.resources.ECSResourceDefault;
 import com.cardshifter.modapi.resources.ECSResourceMap;
+import com.cardshifter.modapi.resources.EntityModifier;
+import com.cardshifter.modapi.resources.ModifierScope;
+import com.cardshifter.modapi.resources.ResourceModifierComponent;
 import com.cardshifter.modapi.resources.ResourceValueChange;
+import com.cardshifter.modapi.resources.ResourceViewUpdate;
 
 public class ResourceTest {
 
@@ -72,6 +86,224 @@ public class ResourceTest {
 		assertEquals(15, resA.get());
 	}
 	
+	@Test
+	public void strategyIsOnlyRecomputedWhenStateChanges() {
+		ECSResourceData resA = resMapper.get(entity).getResource(TestResource.TEST_A);
+		ECSResourceData resB = resMapper.get(entity).getResource(TestResource.TEST_B);
+		AtomicInteger computed = new AtomicInteger();
+		resA.setStrategy((ent, res, value) -> {
+			computed.incrementAndGet();
+			return value + resB.get();
+		});
+		
+		assertEquals(15, resA.get());
+		assertEquals(15, resA.get());
+		assertEquals(1, computed.get());
+		
+		resB.set(7);
+		assertEquals(17, resA.get());
+		assertEquals(17, resA.get());
+		assertEquals(2, computed.get());
+	}
+	
+	@Test
+	public void modifiersOnlyApplyWithinScope() {
+		ResourceModifierComponent modifiers = new ResourceModifierComponent();
+		game.newEntity().addComponent(modifiers);
+		Entity bio = game.newEntity().addComponent(new CreatureTypeComponent("Bio"));
+		Entity mech = game.newEntity().addComponent(new CreatureTypeComponent("Mech"));
+		ECSResourceMap.createFor(bio).set(TestResource.TEST_A, 2);
+		ECSResourceMap.createFor(mech).set(TestResource.TEST_A, 2);
+		
+		ModifierScope bios = new ModifierScope(null, Arrays.asList("Bio"));
+		modifiers.addModifier(TestResource.TEST_A, new EntityModifier(entity, 2, e -> true, (source, target) -> true,
+				(source, target, resource, value) -> value * 10, bios));
+		modifiers.addModifier(TestResource.TEST_A, new EntityModifier(entity, 1, e -> true, (source, target) -> true,
+				(source, target, resource, value) -> value + 1, ModifierScope.ANY));
+		
+		assertEquals(30, TestResource.TEST_A.getFor(bio));
+		assertEquals(3, TestResource.TEST_A.getFor(mech));
+	}
+	
+	@Test
+	public void modifiedValuesAreOnlyComputedAgainWhenTheirInputsChange() {
+		ResourceModifierComponent modifiers = new ResourceModifierComponent();
+		game.newEntity().addComponent(modifiers);
+		Entity card = game.newEntity();
+		ECSResourceMap.createFor(card).set(TestResource.TEST_A, 1);
+		AtomicInteger computed = new AtomicInteger();
+		modifiers.addModifier(TestResource.TEST_A, new EntityModifier(entity, 1, e -> true, (source, target) -> target == card,
+				(source, target, resource, value) -> {
+					computed.incrementAndGet();
+					return value + TestResource.TEST_B.getFor(source);
+				}).dependsOn(TestResource.TEST_B));
+		
+		assertEquals(6, TestResource.TEST_A.getFor(card));
+		resMapper.get(entity).set(TestResource.TEST_A, 3);
+		assertEquals(6, TestResource.TEST_A.getFor(card));
+		assertEquals(1, computed.get());
+		
+		resMapper.get(entity).set(TestResource.TEST_B, 7);
+		assertEquals(8, TestResource.TEST_A.getFor(card));
+		assertEquals(2, computed.get());
+	}
+	
+	@Test
+	public void modifiersWithoutDeclaredInputsAreComputedAgainWhenTheGameChanges() {
+		ResourceModifierComponent modifiers = new ResourceModifierComponent();
+		game.newEntity().addComponent(modifiers);
+		Entity card = game.newEntity();
+		ECSResourceMap.createFor(card).set(TestResource.TEST_A, 1);
+		modifiers.addModifier(TestResource.TEST_A, new EntityModifier(entity, 1, e -> true, (source, target) -> target == card,
+				(source, target, resource, value) -> value + TestResource.TEST_B.getFor(source)));
+		
+		assertEquals(6, TestResource.TEST_A.getFor(card));
+		resMapper.get(entity).set(TestResource.TEST_B, 7);
+		assertEquals(8, TestResource.TEST_A.getFor(card));
+	}
+	
+	@Test
+	public void handlersRegisteredBeforeTheModifiersReadDeclaredInputsUpToDate() {
+		List<Integer> read = new ArrayList<>();
+		Entity card = game.newEntity();
+		game.getEvents().registerHandlerAfter(this, ResourceValueChange.class, event -> read.add(TestResource.TEST_A.getFor(card)));
+		ResourceModifierComponent modifiers = new ResourceModifierComponent();
+		game.newEntity().addComponent(modifiers);
+		ECSResourceMap.createFor(card).set(TestResource.TEST_A, 1);
+		modifiers.addModifier(TestResource.TEST_A, new EntityModifier(entity, 1, e -> true, (source, target) -> target == card,
+				(source, target, resource, value) -> value + TestResource.TEST_B.getFor(source)).dependsOn(TestResource.TEST_B));
+		
+		assertEquals(6, TestResource.TEST_A.getFor(card));
+		read.clear();
+		resMapper.get(entity).set(TestResource.TEST_B, 7);
+		assertEquals(Arrays.asList(8), read);
+	}
+	
+	@Test
+	public void equalResourcesShareTheirValue() {
+		Entity card = game.newEntity();
+		ECSResourceMap.createFor(card).set(new ECSResourceDefault("Attack"), 3);
+		assertEquals(3, new ECSResourceDefault("Attack").getFor(card));
+		assertFalse(new ECSResourceDefault("Defense").retriever().has(card));
+		assertFalse(TestResource.TEST_A.retriever().has(card));
+		
+		Entity copy = card.copy();
+		copy.getComponent(ECSResourceMap.class).set(new ECSResourceDefault("Attack"), 5);
+		assertEquals(3, new ECSResourceDefault("Attack").getFor(card));
+		assertEquals(5, new ECSResourceDefault("Attack").getFor(copy));
+	}
+	
+	@Test
+	public void resourcesAreCopiedToGamesWithAnotherRegistry() {
+		ECSGame other = new ECSGame();
+		other.getResourceRegistry().ordinal(new ECSResourceDefault("Defense"));
+		Entity card = game.newEntity();
+		ECSResourceMap.createFor(card).set(new ECSResourceDefault("Attack"), 3);
+		
+		Entity copy = card.copyTo(other);
+		ECSResourceMap map = copy.getComponent(ECSResourceMap.class);
+		int index = map.indexOf(new ECSResourceDefault("Attack"));
+		assertEquals(3, map.getValue(index));
+		map.setValue(index, 4);
+		assertEquals(4, new ECSResourceDefault("Attack").getFor(copy));
+		assertEquals(3, new ECSResourceDefault("Attack").getFor(card));
+		assertFalse(new ECSResourceDefault("Defense").retriever().has(copy));
+	}
+	
+	@Test
+	public void resourceDataCanBeCreatedForAnEntity() {
+		Entity card = game.newEntity();
+		ECSResourceData data = new ECSResourceData(card, new ECSResourceDefault("Attack"));
+		data.set(4);
+		assertEquals(4, new ECSResourceDefault("Attack").getFor(card));
+		assertEquals(data, card.getComponent(ECSResourceMap.class).getResource(new ECSResourceDefault("Attack")));
+		
+		new ECSResourceData(card, TestResource.TEST_B).set(3);
+		assertEquals(4, new ECSResourceDefault("Attack").getFor(card));
+		assertEquals(3, TestResource.TEST_B.getFor(card));
+		assertFalse(TestResource.TEST_A.retriever().has(card));
+	}
+	
+	@Test
+	public void copyToOtherGameUsesTheModifiersOfThatGame() {
+		ECSGame other = new ECSGame();
+		ResourceModifierComponent modifiers = new ResourceModifierComponent();
+		other.newEntity().addComponent(modifiers);
+		modifiers.addModifier(TestResource.TEST_A, new EntityModifier(entity, 1, e -> true, (source, target) -> true,
+				(source, target, resource, value) -> value * 2, ModifierScope.ANY));
+		
+		Entity copy = entity.copyTo(other);
+		assertEquals(10, TestResource.TEST_A.getFor(entity));
+		assertEquals(20, TestResource.TEST_A.getFor(copy));
+		assertEquals(5, TestResource.TEST_B.getFor(copy));
+	}
+	
+	@Test
+	public void viewsAreNotUpdatedWhenAnActionFails() {
+		List<Integer> viewed = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, ResourceViewUpdate.class, event -> viewed.add(event.getNewValue()));
+		ActionComponent actions = new ActionComponent();
+		entity.addComponent(actions);
+		actions.addAction(new ECSAction(entity, "Fail", action -> true, action -> {
+			resMapper.get(entity).set(TestResource.TEST_B, 1);
+			throw new IllegalStateException("Failed");
+		}));
+		try {
+			actions.getAction("Fail").perform(entity);
+		} catch (RuntimeException ex) {
+			// expected
+		}
+		assertEquals(Arrays.asList(), viewed);
+		
+		game.getResourceViews().refresh();
+		assertEquals(Arrays.asList(1), viewed);
+	}
+	
+	@Test
+	public void viewsAreUpdatedAfterAnActionThrowsAnError() {
+		List<Integer> viewed = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, ResourceViewUpdate.class, event -> viewed.add(event.getNewValue()));
+		ActionComponent actions = new ActionComponent();
+		entity.addComponent(actions);
+		actions.addAction(new ECSAction(entity, "Fail", action -> true, action -> {
+			throw new AssertionError("Failed");
+		}));
+		actions.addAction(new ECSAction(entity, "Set", action -> true, action -> resMapper.get(entity).set(TestResource.TEST_B, 2)));
+		try {
+			actions.getAction("Fail").perform(entity);
+		} catch (AssertionError ex) {
+			// expected
+		}
+		actions.getAction("Set").perform(entity);
+		assertEquals(Arrays.asList(2), viewed);
+	}
+	
+	@Test
+	public void viewUpdatesAreExecutedOncePerActionAndNotOnRead() {
+		List<Integer> viewed = new ArrayList<>();
+		game.getEvents().registerHandlerAfter(this, ResourceViewUpdate.class, event -> viewed.add(event.getNewValue()));
+		ECSResourceData resA = resMapper.get(entity).getResource(TestResource.TEST_A);
+		ECSResourceData resB = resMapper.get(entity).getResource(TestResource.TEST_B);
+		resA.setStrategy((ent, res, value) -> value + resB.get());
+		assertEquals(15, resA.get());
+		assertEquals(Arrays.asList(), viewed);
+		
+		ActionComponent actions = new ActionComponent();
+		entity.addComponent(actions);
+		actions.addAction(new ECSAction(entity, "Use", action -> true, action -> {
+			resB.set(1);
+			resB.set(2);
+			resB.set(3);
+			assertEquals(13, resA.get());
+			assertEquals(Arrays.asList(), viewed);
+		}));
+		actions.getAction("Use").perform(entity);
+		assertEquals(Arrays.asList(3), viewed);
+		
+		resB.set(4);
+		assertEquals(Arrays.asList(3, 4), viewed);
+	}
+	
 	@Test
 	public void addResourceEachTurn() {
 		game.addSystem(g -> g.getEvents().registerHandlerAfter(this, PhaseStartEvent.class, this::addResources));
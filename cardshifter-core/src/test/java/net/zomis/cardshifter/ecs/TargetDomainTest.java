@@ -0,0 +1,92 @@
+package net.zomis.cardshifter.ecs;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.cardshifter.modapi.actions.ActionComponent;
+import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.actions.TargetDomain;
+import com.cardshifter.modapi.actions.TargetSet;
+import com.cardshifter.modapi.actions.TargetableCheckEvent;
+import com.cardshifter.modapi.actions.attack.SpecificActionTargetSystem;
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.PlayerComponent;
+import com.cardshifter.modapi.cards.BattlefieldComponent;
+import com.cardshifter.modapi.cards.HandComponent;
+
+public class TargetDomainTest {
+
+	private final ECSGame game = new ECSGame();
+	private Entity player;
+	private Entity opponent;
+	private Entity source;
+	private int checks;
+
+	@Before
+	public void before() {
+		player = createPlayer(0);
+		opponent = createPlayer(1);
+		source = game.newEntity();
+		player.getComponent(HandComponent.class).addOnBottom(source);
+		source.addComponent(new ActionComponent().addAction(new ECSAction(source, "Use", action -> true, action -> {}).addTargetSet(1, 1)));
+		game.addSystem(new SpecificActionTargetSystem("Use") {
+			@Override
+			protected TargetDomain getTargetDomain(ECSAction action) {
+				return TargetDomain.cardsOn(BattlefieldComponent.class).or(TargetDomain.players());
+			}
+
+			@Override
+			protected void checkTargetable(TargetableCheckEvent event) {
+				checks++;
+				event.setAllowed(event.getTarget() != player);
+			}
+		});
+		game.startGame();
+	}
+
+	private Entity createPlayer(int index) {
+		Entity entity = game.newEntity();
+		entity.addComponents(new PlayerComponent(index, "Player " + index), new HandComponent(entity), new BattlefieldComponent(entity));
+		return entity;
+	}
+
+	private Entity createCard(Entity owner) {
+		Entity card = game.newEntity();
+		owner.getComponent(BattlefieldComponent.class).addOnBottom(card);
+		return card;
+	}
+
+	@Test
+	public void onlyEntitiesInTheDomainAreChecked() {
+		Entity first = createCard(opponent);
+		Entity second = createCard(player);
+		for (int i = 0; i < 10; i++) {
+			game.newEntity();
+		}
+		TargetSet targets = source.getComponent(ActionComponent.class).getAction("Use").getTargetSets().get(0);
+
+		assertEquals(Arrays.asList(opponent, first, second), targets.findPossibleTargets());
+		assertEquals(4, checks);
+	}
+
+	@Test
+	public void targetsAreFoundAgainAfterTheStateChanges() {
+		createCard(opponent);
+		TargetSet targets = source.getComponent(ActionComponent.class).getAction("Use").getTargetSets().get(0);
+		List<Entity> found = targets.findPossibleTargets();
+		assertEquals(found, targets.findPossibleTargets());
+		assertEquals(3, checks);
+
+		Entity card = createCard(opponent);
+		assertEquals(3, targets.findPossibleTargets().size());
+		assertEquals(card, targets.findPossibleTargets().get(2));
+		assertEquals(7, checks);
+	}
+
+}
@@ -131,6 +131,13 @@ public class GameClientController {
 	}
 
 	public void createAndSendMessage(UsableActionMessage action) {
+		if (action.hasTargets()) {
+			// the server sent the targets together with the action, so there is no need to ask for them
+			this.actionBox.getChildren().clear();
+			this.clearActiveFromAllCards();
+			this.processAvailableTargetsMessage(action.availableTargets());
+			return;
+		}
 		if (action.isTargetRequired()) {
 			this.send(new RequestTargetsMessage(gameId, action.getId(), action.getAction()));
 		} else {
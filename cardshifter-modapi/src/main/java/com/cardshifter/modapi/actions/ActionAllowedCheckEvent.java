@@ -1,9 +1,11 @@
 package com.cardshifter.modapi.actions;
 
 import com.cardshifter.modapi.base.Entity;
-import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.StoppableEvent;
+import com.cardshifter.modapi.events.KeyedEvent;
+import com.cardshifter.modapi.events.ReadOnlyEvent;
 
-public class ActionAllowedCheckEvent implements IEvent {
+public class ActionAllowedCheckEvent implements StoppableEvent, KeyedEvent, ReadOnlyEvent {
 
 	private final Entity entity;
 	private final ECSAction action;
@@ -19,6 +21,14 @@ public class ActionAllowedCheckEvent implements IEvent {
 	public ECSAction getAction() {
 		return action;
 	}
+
+	/**
+	 * @return The id of the name of the action
+	 */
+	@Override
+	public int getEventKey() {
+		return action.getNameId();
+	}
 	
 	public Entity getEntity() {
 		return entity;
@@ -36,6 +46,14 @@ public class ActionAllowedCheckEvent implements IEvent {
 		this.allowed = allowed;
 	}
 
+	/**
+	 * Once denied, the remaining handlers are not informed about this event
+	 */
+	@Override
+	public boolean isStopped() {
+		return !allowed;
+	}
+
 	@Override
 	public String toString() {
 		return "ActionAllowedCheckEvent [entity=" + entity + ", action="
@@ -20,6 +20,7 @@ public class ActionComponent extends Component implements CopyableComponent {
 	
 	public ActionComponent addAction(ECSAction action) {
 		this.actions.put(action.getName(), action);
+		stateChanged();
 		return this;
 	}
 
@@ -36,7 +37,17 @@ public class ActionComponent extends Component implements CopyableComponent {
 	}
 	
 	public boolean removeAction(String actionName) {
-		return actions.remove(actionName) != null;
+		if (actions.remove(actionName) == null) {
+			return false;
+		}
+		stateChanged();
+		return true;
+	}
+
+	private void stateChanged() {
+		if (getEntity() != null) {
+			getEntity().getGame().stateChanged();
+		}
 	}
 
 	@Override
@@ -0,0 +1,29 @@
+package com.cardshifter.modapi.actions;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns an id to each action name, which is used as the key of action events.
+ * Ids are shared by all games, so an action name always has the same id.
+ */
+public final class ActionNames {
+
+	private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+	private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+	private ActionNames() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param name The name of an action
+	 * @return The id of the action name
+	 */
+	public static int id(String name) {
+		return IDS.computeIfAbsent(Objects.requireNonNull(name, "action name"), n -> NEXT_ID.getAndIncrement());
+	}
+
+}
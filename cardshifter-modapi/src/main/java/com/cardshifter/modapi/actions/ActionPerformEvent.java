@@ -1,9 +1,9 @@
 package com.cardshifter.modapi.actions;
 
 import com.cardshifter.modapi.base.Entity;
-import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.KeyedEvent;
 
-public class ActionPerformEvent implements IEvent {
+public class ActionPerformEvent implements KeyedEvent {
 
 	private final Entity entity;
 	private final ECSAction action;
@@ -18,6 +18,14 @@ public class ActionPerformEvent implements IEvent {
 	public ECSAction getAction() {
 		return action;
 	}
+
+	/**
+	 * @return The id of the name of the action
+	 */
+	@Override
+	public int getEventKey() {
+		return action.getNameId();
+	}
 	
 	/**
 	 * @return The entity that this Action is attached to. Is the same as <code>getAction().getEntity()</code>
@@ -15,8 +15,12 @@ public class Actions {
 		return actions.required(entity).getECSActions().stream().filter(action -> action.isAllowed(performer)).collect(Collectors.toList());
 	}
 	
+	/**
+	 * @param performer The entity that would perform the actions, normally a player
+	 * @return An unmodifiable list of the actions that the performer is allowed to perform, see {@link LegalActions}
+	 */
 	public static List<ECSAction> getPossibleActionsFor(Entity performer) {
-		return getAllActions(performer.getGame()).stream().filter(action -> action.isAllowed(performer)).collect(Collectors.toList());
+		return performer.getGame().getLegalActions().getFor(performer);
 	}
 	
 	public static List<ECSAction> getAllActions(ECSGame game) {
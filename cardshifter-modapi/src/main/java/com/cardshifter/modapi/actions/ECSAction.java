@@ -6,12 +6,15 @@ import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.resources.ResourceViews;
 
 public class ECSAction {
 
 	private final Entity owner;
 	private final String name;
+	private final int nameId;
 
 	private final Predicate<ECSAction> allowed;
 	private final Consumer<ECSAction> perform;
@@ -20,6 +23,7 @@ public class ECSAction {
 	public ECSAction(Entity owner, String name, Predicate<ECSAction> allowed, Consumer<ECSAction> perform) {
 		this.owner = owner;
 		this.name = name;
+		this.nameId = ActionNames.id(name);
 		this.allowed = allowed;
 		this.perform = perform;
 	}
@@ -28,6 +32,13 @@ public class ECSAction {
 		return name;
 	}
 	
+	/**
+	 * @return The id of the name of this action, see {@link ActionNames}
+	 */
+	public int getNameId() {
+		return nameId;
+	}
+	
 	public Entity getOwner() {
 		return owner;
 	}
@@ -55,10 +66,20 @@ public class ECSAction {
                 return false;
             }
 
+            ResourceViews views = this.owner.getGame().getResourceViews();
+            views.beginAction();
+            boolean performed = false;
             try {
                 this.owner.getGame().executeEvent(new ActionPerformEvent(owner, this, performer), () -> this.perform.accept(this));
+                performed = true;
             } catch (RuntimeException ex) {
                 throw new RuntimeException("Error performing action " + this, ex);
+            } finally {
+                if (performed) {
+                    views.endAction();
+                } else {
+                    views.abortAction();
+                }
             }
             this.targetSets.forEach(TargetSet::clearTargets);
             return true;
@@ -66,13 +87,21 @@ public class ECSAction {
 	}
 
 	public boolean isAllowed(Entity performer) {
-        synchronized (performer.getGame()) {
-            ActionAllowedCheckEvent event = new ActionAllowedCheckEvent(owner, this, performer);
-            if (!owner.getGame().getEvents().executePostEvent(event).isAllowed()) {
-                return false;
-            }
-            return this.allowed.test(this);
+        ECSGame game = performer.getGame();
+        if (game.isReadUnlocked()) {
+            return checkAllowed(performer);
+        }
+        synchronized (game) {
+            return checkAllowed(performer);
+        }
+    }
+
+    private boolean checkAllowed(Entity performer) {
+        ActionAllowedCheckEvent event = new ActionAllowedCheckEvent(owner, this, performer);
+        if (!owner.getGame().getEvents().executePostEvent(event).isAllowed()) {
+            return false;
         }
+        return this.allowed.test(this);
 	}
 
 	public List<TargetSet> getTargetSets() {
@@ -0,0 +1,97 @@
+package com.cardshifter.modapi.actions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+
+/**
+ * The actions that each performer is allowed to perform in a game. They are only evaluated again after the state
+ * of the game has changed, so the game server and the AIs share the same result after an action has been performed.
+ * If a pool is set, the actions are checked on several threads while the game is locked by the calling thread.
+ */
+public final class LegalActions {
+
+	/**
+	 * Fewer actions than this are always checked on the calling thread, as splitting them up would cost more than it saves
+	 */
+	private static final int PARALLEL_THRESHOLD = 32;
+
+	private final ECSGame game;
+	private final Map<Entity, List<ECSAction>> legal = new HashMap<>();
+	private long version = -1;
+	private ForkJoinPool pool;
+
+	public LegalActions(ECSGame game) {
+		this.game = game;
+	}
+
+	/**
+	 * Check the actions on several threads. The checks must not change the game, which is the case for
+	 * {@link ActionAllowedCheckEvent} handlers and the allowed conditions of actions.
+	 * The calling thread waits for the checks while holding the lock of the game, so the pool should be a bounded pool
+	 * of its own rather than the common pool, which is shared with everything else in the JVM.
+	 * 
+	 * @param pool The pool to check the actions in, or null to check them on the calling thread
+	 */
+	public void setPool(ForkJoinPool pool) {
+		synchronized (game) {
+			this.pool = pool;
+		}
+	}
+
+	/**
+	 * @param performer The entity that would perform the actions, normally a player
+	 * @return An unmodifiable list of the actions that are allowed for the performer
+	 */
+	public List<ECSAction> getFor(Entity performer) {
+		synchronized (game) {
+			if (game.getStateVersion() != version) {
+				legal.clear();
+				version = game.getStateVersion();
+			}
+			List<ECSAction> result = legal.get(performer);
+			if (result == null) {
+				result = Collections.unmodifiableList(evaluate(performer));
+				// evaluating can copy components of lazily copied cards, which does not make the result outdated
+				if (game.getStateVersion() != version) {
+					legal.clear();
+					version = game.getStateVersion();
+				}
+				legal.put(performer, result);
+			}
+			return result;
+		}
+	}
+
+	private List<ECSAction> evaluate(Entity performer) {
+		List<ECSAction> actions = new ArrayList<>();
+		for (Entity entity : new ArrayList<>(game.getEntitiesWithComponent(ActionComponent.class))) {
+			actions.addAll(entity.getComponent(ActionComponent.class).getECSActions());
+		}
+		boolean[] allowed = new boolean[actions.size()];
+		if (pool == null || actions.size() < PARALLEL_THRESHOLD) {
+			for (int i = 0; i < allowed.length; i++) {
+				allowed[i] = actions.get(i).isAllowed(performer);
+			}
+		}
+		else {
+			pool.submit(() -> IntStream.range(0, allowed.length).parallel()
+				.forEach(i -> allowed[i] = game.readUnlocked(() -> actions.get(i).isAllowed(performer)))).join();
+		}
+		List<ECSAction> result = new ArrayList<>();
+		for (int i = 0; i < allowed.length; i++) {
+			if (allowed[i]) {
+				result.add(actions.get(i));
+			}
+		}
+		return result;
+	}
+
+}
@@ -11,33 +11,19 @@ public abstract class SpecificActionSystem implements ECSSystem {
 		this.actionName = actionName;
 	}
 
+	/**
+	 * Registers handlers for only the events about actions with the name of this system
+	 */
 	@Override
 	public final void startGame(ECSGame game) {
-		game.getEvents().registerHandlerAfter(this, ActionAllowedCheckEvent.class, this::canAfford);
-		game.getEvents().registerHandlerAfter(this, ActionPerformEvent.class, this::perform);
-	}
-	
-	private void canAfford(ActionAllowedCheckEvent event) {
-		if (!isInterestingAction(event.getAction())) {
-			return;
-		}
-		this.isAllowed(event);
+		int actionId = ActionNames.id(actionName);
+		game.getEvents().registerKeyedHandlerAfter(this, ActionAllowedCheckEvent.class, actionId, this::isAllowed);
+		game.getEvents().registerKeyedHandlerAfter(this, ActionPerformEvent.class, actionId, this::onPerform);
 	}
 	
 	protected void isAllowed(ActionAllowedCheckEvent event) {
 	}
 
-	private boolean isInterestingAction(ECSAction action) {
-		return actionName.equals(action.getName());
-	}
-
-	private void perform(ActionPerformEvent event) {
-		if (!isInterestingAction(event.getAction())) {
-			return;
-		}
-		this.onPerform(event);
-	}
-
 	protected abstract void onPerform(ActionPerformEvent event);
 
 	@Override
@@ -0,0 +1,193 @@
+package com.cardshifter.modapi.actions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.cardshifter.modapi.base.Component;
+import com.cardshifter.modapi.base.ComponentRetriever;
+import com.cardshifter.modapi.base.ECSGame;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.base.PlayerComponent;
+import com.cardshifter.modapi.cards.CardComponent;
+import com.cardshifter.modapi.cards.ZoneComponent;
+import com.cardshifter.modapi.phase.PhaseController;
+
+/**
+ * The entities that can possibly be targeted by an action, declared by a target system so that target search
+ * only needs to check these entities instead of every entity in the game. The domain may contain entities that are
+ * not targetable, but must contain all entities that are.
+ */
+public final class TargetDomain {
+
+	/**
+	 * Which players the candidates need to be owned by. Players are owned by themselves, cards by the owner of their zone.
+	 */
+	public enum Owner {
+		ANY, CURRENT_PLAYER, OPPONENT
+	}
+
+	private final boolean players;
+	/**
+	 * The types of player zones to take cards from
+	 */
+	private final Set<Class<? extends ZoneComponent>> zoneTypes;
+	/**
+	 * The names of the zones to take cards from, or null to take cards from all zones
+	 */
+	private final Set<String> zoneNames;
+	private final boolean cards;
+	private final Owner owner;
+	private final List<Class<? extends Component>> required;
+
+	private TargetDomain(boolean players, Set<Class<? extends ZoneComponent>> zoneTypes, boolean cards, Set<String> zoneNames,
+			Owner owner, List<Class<? extends Component>> required) {
+		this.players = players;
+		this.zoneTypes = Collections.unmodifiableSet(zoneTypes);
+		this.cards = cards;
+		this.zoneNames = zoneNames == null ? null : Collections.unmodifiableSet(zoneNames);
+		this.owner = Objects.requireNonNull(owner);
+		this.required = Collections.unmodifiableList(required);
+	}
+
+	/**
+	 * @return A domain of all players
+	 */
+	public static TargetDomain players() {
+		return new TargetDomain(true, Collections.emptySet(), false, null, Owner.ANY, Collections.emptyList());
+	}
+
+	/**
+	 * @param zones The types of zones of the players
+	 * @return A domain of the cards on the given zones of the players
+	 */
+	@SafeVarargs
+	public static TargetDomain cardsOn(Class<? extends ZoneComponent>... zones) {
+		return new TargetDomain(false, new LinkedHashSet<>(Arrays.asList(zones)), false, null, Owner.ANY, Collections.emptyList());
+	}
+
+	/**
+	 * @param zoneNames The names of the zones, or null for cards on any zone
+	 * @return A domain of the cards on the zones with the given names, of players or other entities
+	 */
+	public static TargetDomain cardsOnZonesNamed(Collection<String> zoneNames) {
+		return new TargetDomain(false, Collections.emptySet(), true, zoneNames == null ? null : new LinkedHashSet<>(zoneNames),
+				Owner.ANY, Collections.emptyList());
+	}
+
+	/**
+	 * @param other Another domain, which must have the same owner and required components
+	 * @return A domain of the entities in this domain and the other domain
+	 */
+	public TargetDomain or(TargetDomain other) {
+		if (owner != other.owner || !required.equals(other.required)) {
+			throw new IllegalArgumentException("Cannot combine domains with different owners or required components: " + this + ", " + other);
+		}
+		Set<Class<? extends ZoneComponent>> types = new LinkedHashSet<>(zoneTypes);
+		types.addAll(other.zoneTypes);
+		Set<String> names;
+		if (!cards || !other.cards) {
+			names = cards ? zoneNames : other.zoneNames;
+		}
+		else if (zoneNames == null || other.zoneNames == null) {
+			names = null;
+		}
+		else {
+			names = new LinkedHashSet<>(zoneNames);
+			names.addAll(other.zoneNames);
+		}
+		return new TargetDomain(players || other.players, types, cards || other.cards, names, owner, required);
+	}
+
+	/**
+	 * @param owner Which players the entities need to be owned by
+	 * @return A domain of the entities in this domain that are owned by the given players
+	 */
+	public TargetDomain ownedBy(Owner owner) {
+		return new TargetDomain(players, zoneTypes, cards, zoneNames, owner, required);
+	}
+
+	/**
+	 * @param component The type of a component
+	 * @return A domain of the entities in this domain that have the given component
+	 */
+	public TargetDomain withComponent(Class<? extends Component> component) {
+		List<Class<? extends Component>> components = new ArrayList<>(required);
+		components.add(component);
+		return new TargetDomain(players, zoneTypes, cards, zoneNames, owner, components);
+	}
+
+	/**
+	 * @param game The game to find the entities in
+	 * @return The entities in this domain, ordered by id
+	 */
+	public List<Entity> candidates(ECSGame game) {
+		PhaseController phases = ComponentRetriever.singletonOptional(game, PhaseController.class);
+		Entity current = phases == null ? null : phases.getCurrentEntity();
+		Set<Entity> result = new LinkedHashSet<>();
+		for (Entity player : game.query(PlayerComponent.class)) {
+			if (!isOwnedBy(player, current)) {
+				continue;
+			}
+			if (players) {
+				result.add(player);
+			}
+			for (Class<? extends ZoneComponent> type : zoneTypes) {
+				ZoneComponent zone = player.getComponent(type);
+				if (zone != null) {
+					result.addAll(zone.getCards());
+				}
+			}
+		}
+		if (cards) {
+			for (Entity card : game.query(CardComponent.class)) {
+				ZoneComponent zone = card.getComponent(CardComponent.class).getCurrentZone();
+				boolean onZone = zoneNames == null || (zone != null && zoneNames.contains(zone.getName()));
+				if (onZone && (owner == Owner.ANY || (zone != null && isOwnedBy(zone.getOwner(), current)))) {
+					result.add(card);
+				}
+			}
+		}
+		List<Entity> candidates = new ArrayList<>(result.size());
+		for (Entity entity : result) {
+			if (hasRequired(entity)) {
+				candidates.add(entity);
+			}
+		}
+		candidates.sort(Comparator.comparingInt(Entity::getId));
+		return candidates;
+	}
+
+	private boolean isOwnedBy(Entity player, Entity current) {
+		switch (owner) {
+			case CURRENT_PLAYER:
+				return current == null || player == current;
+			case OPPONENT:
+				return current == null || player != current;
+			default:
+				return true;
+		}
+	}
+
+	private boolean hasRequired(Entity entity) {
+		for (Class<? extends Component> component : required) {
+			if (!entity.hasComponent(component)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "TargetDomain [players=" + players + ", zoneTypes=" + zoneTypes + ", cards=" + cards + ", zoneNames=" + zoneNames
+				+ ", owner=" + owner + ", required=" + required + "]";
+	}
+
+}
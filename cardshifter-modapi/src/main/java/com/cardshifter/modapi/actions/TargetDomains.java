@@ -0,0 +1,46 @@
+package com.cardshifter.modapi.actions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The target domains that target systems have declared for the actions of a game, by action name.
+ * An action without a declared domain can target any entity in the game.
+ */
+public final class TargetDomains {
+
+	private final Map<Integer, List<Function<ECSAction, TargetDomain>>> declared = new HashMap<>();
+
+	/**
+	 * Declare the domain of an action. When several domains are declared for the same action, the first one that
+	 * is not null is used, as each system denies the targets outside of its own domain.
+	 *
+	 * @param actionName The name of the action
+	 * @param domain The domain for an action, which may return null if it does not restrict the action
+	 */
+	public synchronized void declare(String actionName, Function<ECSAction, TargetDomain> domain) {
+		declared.computeIfAbsent(ActionNames.id(actionName), id -> new ArrayList<>()).add(domain);
+	}
+
+	/**
+	 * @param action The action to find the domain for
+	 * @return The domain of the action, or null if any entity can be targeted
+	 */
+	public synchronized TargetDomain getFor(ECSAction action) {
+		List<Function<ECSAction, TargetDomain>> domains = declared.get(action.getNameId());
+		if (domains == null) {
+			return null;
+		}
+		for (Function<ECSAction, TargetDomain> domain : domains) {
+			TargetDomain result = domain.apply(action);
+			if (result != null) {
+				return result;
+			}
+		}
+		return null;
+	}
+
+}
@@ -13,6 +13,11 @@ public class TargetSet {
 	private final int min;
 	private final int max;
 	private final ECSAction action;
+	/**
+	 * The possible targets found for the current state version and chosen targets, or null if they need to be found again
+	 */
+	private List<Entity> possibleTargets;
+	private long possibleTargetsVersion = -1;
 	
 	public TargetSet(ECSAction action, int min, int max) {
 		this.chosenTargets = new ArrayList<>(min);
@@ -27,6 +32,7 @@ public class TargetSet {
 			return false;
 		}
 		chosenTargets.add(target);
+		possibleTargets = null;
 		return true;
 	}
 
@@ -44,8 +50,30 @@ public class TargetSet {
 		return event.isAllowed();
 	}
 	
+	/**
+	 * Find the entities that can be targeted. Only the entities in the domain of the action are checked,
+	 * and the result is reused until the state of the game or the chosen targets change.
+	 * 
+	 * @return The targetable entities, ordered by id
+	 * @see TargetDomains
+	 */
 	public List<Entity> findPossibleTargets() {
-		return game().findEntities(entity -> isTargetable(entity));
+		ECSGame game = game();
+		synchronized (game) {
+			long version = game.getStateVersion();
+			if (possibleTargets == null || possibleTargetsVersion != version) {
+				TargetDomain domain = game.getTargetDomains().getFor(action);
+				List<Entity> candidates = domain == null ? game.findEntities(entity -> true) : domain.candidates(game);
+				possibleTargets = new ArrayList<>();
+				for (Entity candidate : candidates) {
+					if (isTargetable(candidate)) {
+						possibleTargets.add(candidate);
+					}
+				}
+				possibleTargetsVersion = version;
+			}
+			return new ArrayList<>(possibleTargets);
+		}
 	}
 	
 	public int selectedTargets() {
@@ -62,7 +90,10 @@ public class TargetSet {
 	}
 
 	public void clearTargets() {
-		chosenTargets.clear();
+		if (!chosenTargets.isEmpty()) {
+			chosenTargets.clear();
+			possibleTargets = null;
+		}
 	}
 	
 	public int getMin() {
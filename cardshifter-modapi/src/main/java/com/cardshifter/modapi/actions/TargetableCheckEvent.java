@@ -1,9 +1,11 @@
 package com.cardshifter.modapi.actions;
 
 import com.cardshifter.modapi.base.Entity;
-import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.StoppableEvent;
+import com.cardshifter.modapi.events.KeyedEvent;
+import com.cardshifter.modapi.events.ReadOnlyEvent;
 
-public class TargetableCheckEvent implements IEvent {
+public class TargetableCheckEvent implements StoppableEvent, KeyedEvent, ReadOnlyEvent {
 
 	private final ECSAction action;
 	private final TargetSet targetSet;
@@ -19,6 +21,14 @@ public class TargetableCheckEvent implements IEvent {
 	public ECSAction getAction() {
 		return action;
 	}
+
+	/**
+	 * @return The id of the name of the action
+	 */
+	@Override
+	public int getEventKey() {
+		return action.getNameId();
+	}
 	
 	public Entity getTarget() {
 		return target;
@@ -35,5 +45,13 @@ public class TargetableCheckEvent implements IEvent {
 	public void setAllowed(boolean allowed) {
 		this.allowed = allowed;
 	}
+
+	/**
+	 * Once denied, the remaining handlers are not informed about this event
+	 */
+	@Override
+	public boolean isStopped() {
+		return !allowed;
+	}
 	
 }
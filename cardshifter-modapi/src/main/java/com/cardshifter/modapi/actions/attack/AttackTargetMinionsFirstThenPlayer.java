@@ -1,5 +1,8 @@
 package com.cardshifter.modapi.actions.attack;
 
+import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.actions.TargetDomain;
+import com.cardshifter.modapi.actions.TargetDomain.Owner;
 import com.cardshifter.modapi.actions.TargetableCheckEvent;
 import com.cardshifter.modapi.base.ComponentRetriever;
 import com.cardshifter.modapi.base.Entity;
@@ -32,6 +35,11 @@ public class AttackTargetMinionsFirstThenPlayer extends SpecificActionTargetSyst
         return battlefieldComponent.stream().anyMatch(shouldAttackFirst);
     }
 	
+	@Override
+	protected TargetDomain getTargetDomain(ECSAction action) {
+		return TargetDomain.cardsOn(BattlefieldComponent.class).or(TargetDomain.players()).ownedBy(Owner.OPPONENT);
+	}
+
 	protected void checkTargetable(TargetableCheckEvent event) {
 		Entity target = event.getTarget();
 		if (target.hasComponent(CardComponent.class)) {
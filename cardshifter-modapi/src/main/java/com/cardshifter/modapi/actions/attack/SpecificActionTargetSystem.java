@@ -2,6 +2,9 @@ package com.cardshifter.modapi.actions.attack;
 
 import java.util.Objects;
 
+import com.cardshifter.modapi.actions.ActionNames;
+import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.actions.TargetDomain;
 import com.cardshifter.modapi.actions.TargetableCheckEvent;
 import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
@@ -16,13 +19,16 @@ public abstract class SpecificActionTargetSystem implements ECSSystem {
 
 	@Override
 	public final void startGame(ECSGame game) {
-		game.getEvents().registerHandlerAfter(this, TargetableCheckEvent.class, this::targetableCheck);
+		game.getEvents().registerKeyedHandlerAfter(this, TargetableCheckEvent.class, ActionNames.id(actionName), this::checkTargetable);
+		game.getTargetDomains().declare(actionName, this::getTargetDomain);
 	}
-	
-	private void targetableCheck(TargetableCheckEvent event) {
-		if (event.getAction().getName().equals(actionName)) {
-			this.checkTargetable(event);
-		}
+
+	/**
+	 * @param action The action to find targets for
+	 * @return The entities that {@link #checkTargetable(TargetableCheckEvent)} may allow, or null to check all entities
+	 */
+	protected TargetDomain getTargetDomain(ECSAction action) {
+		return null;
 	}
 
 	protected abstract void checkTargetable(TargetableCheckEvent event);
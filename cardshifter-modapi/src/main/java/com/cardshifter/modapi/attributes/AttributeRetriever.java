@@ -47,6 +47,10 @@ public class AttributeRetriever {
 
 	public String getOrDefault(Entity entity, String defaultValue) {
 		Objects.requireNonNull(entity, "Cannot retrieve attribute map for null entity");
+		if (entity.isLazy()) {
+			String value = entity.read(ECSAttributeMap.class, map -> map.get(attribute).map(data -> data.valueFor(entity)).orElse(null));
+			return value != null ? value : defaultValue;
+		}
 		ECSAttributeMap map = entity.getComponent(ECSAttributeMap.class);
 		if (map == null) {
 			return defaultValue;
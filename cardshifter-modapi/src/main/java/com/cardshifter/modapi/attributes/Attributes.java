@@ -24,9 +24,9 @@ public final class Attributes {
 	}
 
 	public static Map<String, String> map(Entity playerFor) {
-		HashMap<String, String> result = new HashMap<>();
-		processAttributes(playerFor, data -> result.put(data.getAttribute().toString(), data.get()));
-		return result;
+		// lazy cards are read without copying their attributes
+		Map<String, String> result = playerFor.read(ECSAttributeMap.class, map -> map.valuesFor(playerFor));
+		return result != null ? result : new HashMap<>();
 	}
 
 	public static AttributeRetriever retriever(ECSAttribute attribute) {
@@ -35,6 +35,20 @@ public class ECSAttributeData {
 		return result;
 	}
 	
+	/**
+	 * The value for an entity that reads the attributes of this entity without copying them, see {@link Entity#read}.
+	 * Unlike {@link #get()}, this does not execute a view update.
+	 *
+	 * @param entity The entity to get the value for
+	 * @return The value of the attribute, after applying the strategy if there is one
+	 */
+	String valueFor(Entity entity) {
+		if (entity == this.entity) {
+			return get();
+		}
+		return strategy == null ? current : strategy.getAttribute(entity, current);
+	}
+
 	public void set(String value) {
 		// Execute change event (for taking changing creature type, description, etc...).
 		if (!Objects.equals(this.current, value)) {
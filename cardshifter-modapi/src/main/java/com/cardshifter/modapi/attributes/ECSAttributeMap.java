@@ -46,6 +46,16 @@ public class ECSAttributeMap extends Component implements CopyableComponent {
 		return attr;
 	}
 
+	/**
+	 * @param entity The entity to get the values for, see {@link ECSAttributeData#valueFor(Entity)}
+	 * @return The values of all the attributes, by the name of the attribute
+	 */
+	Map<String, String> valuesFor(Entity entity) {
+		Map<String, String> result = new HashMap<>();
+		map.forEach((attr, data) -> result.put(attr.toString(), data.valueFor(entity)));
+		return result;
+	}
+
 	@Override
 	public String toString() {
 		return map.toString();
@@ -1,23 +1,26 @@
 package com.cardshifter.modapi.base;
 
 import java.util.Objects;
-import java.util.Set;
 
 public class ComponentRetriever<T extends Component> {
 
 	private final Class<T> clazz;
+	private final int typeId;
 
 	public ComponentRetriever(Class<T> clazz) {
-		this.clazz = clazz;
+		this.clazz = Objects.requireNonNull(clazz, "clazz");
+		this.typeId = ComponentTypes.idFor(clazz);
 	}
 
 	public boolean has(Entity entity) {
-		return entity.hasComponent(clazz);
+		return entity.component(typeId) != null;
 	}
 
 	public T get(Entity entity) {
-		Objects.requireNonNull(entity, "Cannot retrieve component " + clazz.getSimpleName() + " on a null entity");
-		return entity.getComponent(clazz);
+		if (entity == null) {
+			throw new NullPointerException("Cannot retrieve component " + clazz.getSimpleName() + " on a null entity");
+		}
+		return clazz.cast(entity.component(typeId));
 	}
 
 	public T required(Entity entity) {
@@ -31,7 +34,7 @@ public class ComponentRetriever<T extends Component> {
 	}
 
 	public static <T extends Component> ComponentRetriever<T> singleton(Class<T> class1) {
-		return new ComponentRetriever<T>(null) {
+		return new ComponentRetriever<T>(class1) {
 			
 			@Override
 			public boolean has(Entity entity) {
@@ -47,19 +50,11 @@ public class ComponentRetriever<T extends Component> {
 	}
 
 	public static <T extends Component> T singleton(ECSGame game, Class<T> class1) {
-		Set<Entity> all = game.getEntitiesWithComponent(class1);
-		if (all.size() != 1) {
-			throw new IllegalStateException("Expected to find exactly one " + class1.getSimpleName() + ", found " + all.size());
-		}
-		return all.iterator().next().getComponent(class1);
+		return game.singleton(class1);
 	}
 
     public static <T extends Component> T singletonOptional(ECSGame game, Class<T> class1) {
-        Set<Entity> all = game.getEntitiesWithComponent(class1);
-        if (all.size() > 1) {
-            throw new IllegalStateException("Expected to find exactly one " + class1.getSimpleName() + ", found " + all.size());
-        }
-        return all.isEmpty() ? null : all.iterator().next().getComponent(class1);
+        return game.singletonOptional(class1);
     }
 
 }
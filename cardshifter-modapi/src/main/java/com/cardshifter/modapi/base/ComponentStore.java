@@ -0,0 +1,228 @@
+package com.cardshifter.modapi.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dense storage for the components of a single game.
+ * For each component type there is an array indexed by entity id, together with the set of entities having that component
+ * and the queries that involve the component type.
+ * Components are only changed by the thread that holds the lock of the game, but queries can also be created by threads
+ * that read the game without the lock, see {@link ECSGame#readUnlocked}. Creating queries and slots is therefore synchronized,
+ * and new slots and queries are published through volatile fields.
+ */
+final class ComponentStore {
+
+	private static final class Slot {
+		/**
+		 * The components by entity id. The array is volatile because the entities of a game can be read by the threads
+		 * of other games while new entities are added, see {@link Entity#lazyCopyTo}
+		 */
+		private volatile Component[] components = new Component[16];
+		private final Set<Entity> entities = new LinkedHashSet<>();
+		private final Set<Entity> view = Collections.unmodifiableSet(entities);
+		private final List<EntityQuery> queries = new ArrayList<>();
+		/**
+		 * The query for only this component type, or null if it has not been requested yet
+		 */
+		private volatile EntityQuery typeQuery;
+		/**
+		 * The component if exactly one entity has a component of this type, otherwise null
+		 */
+		private Component single;
+	}
+
+	/**
+	 * The slots by component type id. The array is replaced instead of changed when a slot is added
+	 */
+	private volatile Slot[] slots = new Slot[16];
+	private long modificationCount;
+
+	Component get(int entityId, int typeId) {
+		Slot[] slots = this.slots;
+		if (typeId >= slots.length || slots[typeId] == null) {
+			return null;
+		}
+		Component[] components = slots[typeId].components;
+		return entityId < components.length ? components[entityId] : null;
+	}
+
+	void set(Entity entity, int typeId, Component component) {
+		Slot slot = slot(typeId);
+		int entityId = entity.getId();
+		if (entityId >= slot.components.length) {
+			slot.components = Arrays.copyOf(slot.components, Math.max(entityId + 1, slot.components.length * 2));
+		}
+		Component previous = slot.components[entityId];
+		slot.components[entityId] = component;
+		modificationCount++;
+		slot.entities.add(entity);
+		slot.single = slot.entities.size() == 1 ? component : null;
+		if (previous == null) {
+			updateQueries(slot, entity);
+		}
+	}
+
+	Component remove(Entity entity, int typeId) {
+		Component removed = get(entity.getId(), typeId);
+		if (removed != null) {
+			Slot slot = slots[typeId];
+			slot.components[entity.getId()] = null;
+			modificationCount++;
+			slot.entities.remove(entity);
+			slot.single = slot.entities.size() == 1 ? slot.components[slot.entities.iterator().next().getId()] : null;
+			updateQueries(slot, entity);
+		}
+		return removed;
+	}
+
+	void removeAll(Entity entity) {
+		for (int typeId = 0; typeId < slots.length; typeId++) {
+			remove(entity, typeId);
+		}
+	}
+
+	/**
+	 * @return The number of times a component has been added, replaced or removed
+	 */
+	long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * @param entity The entity to get components for
+	 * @return A new list of all the components of the entity, ordered by component type id
+	 */
+	List<Component> getAll(Entity entity) {
+		List<Component> result = new ArrayList<>();
+		for (int typeId = 0; typeId < slots.length; typeId++) {
+			Component component = get(entity.getId(), typeId);
+			if (component != null) {
+				result.add(component);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param typeId The component type id
+	 * @return A live, read-only view of the entities having a component of the type
+	 */
+	Set<Entity> entitiesWith(int typeId) {
+		Slot[] slots = this.slots;
+		if (typeId >= slots.length || slots[typeId] == null) {
+			return Collections.emptySet();
+		}
+		return slots[typeId].view;
+	}
+
+	/**
+	 * @param typeId The component type id
+	 * @return The component of the type if exactly one entity has it, otherwise null
+	 */
+	Component single(int typeId) {
+		Slot[] slots = this.slots;
+		return typeId < slots.length && slots[typeId] != null ? slots[typeId].single : null;
+	}
+
+	/**
+	 * @param typeId The component type id that entities need to have
+	 * @return The query for the type id, which is created on first use and kept in the slot of the type
+	 */
+	EntityQuery query(int typeId) {
+		Slot[] slots = this.slots;
+		if (typeId < slots.length && slots[typeId] != null) {
+			EntityQuery query = slots[typeId].typeQuery;
+			if (query != null) {
+				return query;
+			}
+		}
+		synchronized (this) {
+			Slot slot = slot(typeId);
+			EntityQuery query = slot.typeQuery;
+			if (query == null) {
+				query = create(new int[]{ typeId });
+				slot.typeQuery = query;
+			}
+			return query;
+		}
+	}
+
+	/**
+	 * @param typeIds The component type ids that entities need to have
+	 * @return The query for the type ids, reusing an existing query if there is one
+	 */
+	EntityQuery query(int[] typeIds) {
+		int[] sorted = isSortedAndDistinct(typeIds) ? typeIds : Arrays.stream(typeIds).sorted().distinct().toArray();
+		if (sorted.length == 1) {
+			return query(sorted[0]);
+		}
+		synchronized (this) {
+			if (sorted.length > 0) {
+				for (EntityQuery query : slot(sorted[0]).queries) {
+					if (query.hasTypes(sorted)) {
+						return query;
+					}
+				}
+			}
+			return create(sorted);
+		}
+	}
+
+	private static boolean isSortedAndDistinct(int[] typeIds) {
+		for (int i = 1; i < typeIds.length; i++) {
+			if (typeIds[i - 1] >= typeIds[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private EntityQuery create(int[] sorted) {
+		EntityQuery query = new EntityQuery(this, sorted);
+		Slot smallest = null;
+		for (int typeId : sorted) {
+			Slot slot = slot(typeId);
+			slot.queries.add(query);
+			if (smallest == null || slot.entities.size() < smallest.entities.size()) {
+				smallest = slot;
+			}
+		}
+		if (smallest != null) {
+			for (Entity entity : smallest.entities) {
+				query.update(entity);
+			}
+		}
+		return query;
+	}
+
+	private static void updateQueries(Slot slot, Entity entity) {
+		List<EntityQuery> queries = slot.queries;
+		for (int i = 0; i < queries.size(); i++) {
+			queries.get(i).update(entity);
+		}
+	}
+
+	private Slot slot(int typeId) {
+		Slot[] slots = this.slots;
+		Slot slot = typeId < slots.length ? slots[typeId] : null;
+		if (slot == null) {
+			synchronized (this) {
+				slots = this.slots;
+				slot = typeId < slots.length ? slots[typeId] : null;
+				if (slot == null) {
+					slots = Arrays.copyOf(slots, Math.max(typeId + 1, slots.length));
+					slot = new Slot();
+					slots[typeId] = slot;
+					this.slots = slots;
+				}
+			}
+		}
+		return slot;
+	}
+
+}
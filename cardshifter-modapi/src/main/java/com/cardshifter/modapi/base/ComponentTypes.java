@@ -0,0 +1,31 @@
+package com.cardshifter.modapi.base;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry that gives each Component class a small integer id.
+ * The ids are used as indexes into the component arrays of {@link ComponentStore}.
+ */
+final class ComponentTypes {
+
+	private static final AtomicInteger nextId = new AtomicInteger();
+	private static final ClassValue<Integer> ids = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return nextId.getAndIncrement();
+		}
+	};
+
+	private ComponentTypes() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @param clazz The component class to get the id for
+	 * @return The id of the component class, assigning a new one if it did not already have one
+	 */
+	static int idFor(Class<? extends Component> clazz) {
+		return ids.get(clazz);
+	}
+
+}
@@ -43,6 +43,10 @@ public class CreatureTypeComponent extends Component implements CopyableComponen
         return !hasAny(types);
     }
 
+    public List<String> getCreatureTypes() {
+        return Collections.unmodifiableList(creatureTypes);
+    }
+
     public String getAllTypes() {
         return String.join(" ", creatureTypes);
     }
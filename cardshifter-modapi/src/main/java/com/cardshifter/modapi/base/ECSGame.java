@@ -1,16 +1,22 @@
 package com.cardshifter.modapi.base;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import com.cardshifter.modapi.actions.LegalActions;
+import com.cardshifter.modapi.actions.TargetDomains;
+import com.cardshifter.modapi.cards.EffectLifetimes;
 import com.cardshifter.modapi.events.*;
+import com.cardshifter.modapi.resources.ResourceRegistry;
+import com.cardshifter.modapi.resources.ResourceViews;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -21,17 +27,34 @@ import org.apache.log4j.Logger;
  */
 public final class ECSGame {
 	private static final Logger logger = LogManager.getLogger(ECSGame.class);
+	/**
+	 * The game that the current thread reads without holding its lock, see {@link #readUnlocked(Supplier)}
+	 */
+	private static final ThreadLocal<ECSGame> unlockedReader = new ThreadLocal<>();
 
 	private final AtomicInteger ids = new AtomicInteger();
 	/**
-	 * All the entities of a single game
+	 * All the entities of a single game, indexed by entity id
+	 */
+	private Entity[] entities = new Entity[64];
+	/**
+	 * The components of all the entities of this game
 	 */
-	private final Map<Integer, Entity> entities = new HashMap<>();
+	private final ComponentStore components = new ComponentStore();
 	private final EventExecutor events = new EventExecutor();
+	private final EffectLifetimes effectLifetimes = new EffectLifetimes(events);
+	private final ResourceViews resourceViews = new ResourceViews();
+	private ResourceRegistry resourceRegistry = new ResourceRegistry();
+	private final LegalActions legalActions = new LegalActions(this);
+	private final TargetDomains targetDomains = new TargetDomains();
 	/**
 	 * All the systems that comprise the game
 	 */
 	private final List<ECSSystem> systems = new ArrayList<>();
+	/**
+	 * Changes that are not otherwise seen by the state version, see {@link #stateChanged()}
+	 */
+	private long stateChanges;
 	private final Random random = new Random();
 	/**
 	 * An enum for the current state of the game
@@ -47,7 +70,10 @@ public final class ECSGame {
 	 */
 	public Entity newEntity() {
 		Entity entity = new Entity(this, ids.incrementAndGet());
-		this.entities.put(entity.getId(), entity);
+		if (entity.getId() >= entities.length) {
+			entities = Arrays.copyOf(entities, entities.length * 2);
+		}
+		this.entities[entity.getId()] = entity;
         getEvents().executePostEvent(new EntityCreatedEvent(entity));
 		return entity;
 	}
@@ -78,12 +104,130 @@ public final class ECSGame {
 	}
 	
 	/**
+	 * Returns a live, read-only view of the entities that have a component of the exact specified class.
+	 * The view reflects later changes to the game, so make a copy before adding or removing
+	 * components of this class while iterating over it.
 	 * 
 	 * @param clazz The component to search for
 	 * @return All entities that contain the component
 	 */
 	public Set<Entity> getEntitiesWithComponent(Class<? extends Component> clazz) {
-		return entities.values().stream().filter(e -> e.hasComponent(clazz)).collect(Collectors.toSet());
+		return components.entitiesWith(ComponentTypes.idFor(clazz));
+	}
+
+	/**
+	 * Get the only component of the specified class in the game, such as the {@link com.cardshifter.modapi.phase.PhaseController}.
+	 * This is a field read, as the game keeps track of the component whenever exactly one entity has it.
+	 * 
+	 * @param clazz The exact class of the component
+	 * @return The component
+	 * @throws IllegalStateException If there is not exactly one entity with the component
+	 */
+	public <T extends Component> T singleton(Class<T> clazz) {
+		T result = singletonOptional(clazz);
+		if (result == null) {
+			throw new IllegalStateException("Expected to find exactly one " + clazz.getSimpleName() + ", found " + getEntitiesWithComponent(clazz).size());
+		}
+		return result;
+	}
+
+	/**
+	 * Get the only component of the specified class in the game, if there is one.
+	 * 
+	 * @param clazz The exact class of the component
+	 * @return The component, or null if no entity has it
+	 * @throws IllegalStateException If there is more than one entity with the component
+	 */
+	public <T extends Component> T singletonOptional(Class<T> clazz) {
+		int typeId = ComponentTypes.idFor(clazz);
+		Component result = components.single(typeId);
+		if (result == null && !components.entitiesWith(typeId).isEmpty()) {
+			throw new IllegalStateException("Expected to find exactly one " + clazz.getSimpleName() + ", found " + components.entitiesWith(typeId).size());
+		}
+		return clazz.cast(result);
+	}
+
+	/**
+	 * Get a live view of all the entities that have the specified component. The query is looked up directly
+	 * by the component type, so this does not allocate after the first call.
+	 * 
+	 * @param componentType The exact class of the component that entities need to have
+	 * @return A live view of the matching entities
+	 * @see #query(Class...)
+	 */
+	public EntityQuery query(Class<? extends Component> componentType) {
+		return components.query(ComponentTypes.idFor(componentType));
+	}
+
+	/**
+	 * Get a live view of all the entities that have all of the specified components.
+	 * The returned query is cached and kept up to date by the game, so calling this method again
+	 * with the same component types returns the same query.
+	 * 
+	 * @param componentTypes The exact classes of the components that entities need to have
+	 * @return A live view of the matching entities
+	 */
+	@SafeVarargs
+	public final EntityQuery query(Class<? extends Component>... componentTypes) {
+		int[] typeIds = new int[componentTypes.length];
+		for (int i = 0; i < componentTypes.length; i++) {
+			typeIds[i] = ComponentTypes.idFor(componentTypes[i]);
+		}
+		return components.query(typeIds);
+	}
+
+	/**
+	 * Component storage of this game, used by the entities to read and write their components.
+	 * 
+	 * @return The component storage
+	 */
+	ComponentStore getComponentStore() {
+		return components;
+	}
+
+	/**
+	 * Get a number that changes whenever the state of the game may have changed, which happens
+	 * when an event that is not a {@link ReadOnlyEvent} is executed, when a component is added or removed
+	 * or when {@link #stateChanged()} is called.
+	 * Values computed from the game state can be cached for as long as this number stays the same.
+	 * 
+	 * @return The current state version
+	 */
+	public long getStateVersion() {
+		return stateChanges + events.getExecutedCount() + components.getModificationCount();
+	}
+
+	/**
+	 * Reads the game on the current thread without taking the lock of the game, for example to check whether an action is allowed.
+	 * This is only safe while another thread holds the lock and waits for the read to finish, and only for reads that do not
+	 * change the game. Lazily copied entities may copy the components of their prototype for themselves when they are read, see {@link Entity#lazyCopy()}.
+	 * 
+	 * @param read The read to perform
+	 * @return The result of the read
+	 */
+	public <T> T readUnlocked(Supplier<T> read) {
+		ECSGame previous = unlockedReader.get();
+		unlockedReader.set(this);
+		try {
+			return read.get();
+		} finally {
+			unlockedReader.set(previous);
+		}
+	}
+
+	/**
+	 * @return True if the current thread is reading this game without its lock, see {@link #readUnlocked(Supplier)}
+	 */
+	public boolean isReadUnlocked() {
+		return unlockedReader.get() == this;
+	}
+
+	/**
+	 * Marks that the state of the game has changed in a way that does not involve an event or a component change,
+	 * such as adding a resource modifier.
+	 */
+	public void stateChanged() {
+		stateChanges++;
 	}
 
 	/**
@@ -94,6 +238,54 @@ public final class ECSGame {
 		return events;
 	}
 
+	/**
+	 * @return The actions that each player is allowed to perform in the current state of the game
+	 */
+	public LegalActions getLegalActions() {
+		return legalActions;
+	}
+
+	/**
+	 * @return The entities that target systems have declared that each action can target
+	 */
+	public TargetDomains getTargetDomains() {
+		return targetDomains;
+	}
+
+	/**
+	 * 
+	 * @return The effects that last as long as an entity is on the battlefield
+	 */
+	public EffectLifetimes getEffectLifetimes() {
+		return effectLifetimes;
+	}
+
+	/**
+	 * 
+	 * @return The resource values that should be refreshed for the UIs at the end of the current action
+	 */
+	public ResourceViews getResourceViews() {
+		return resourceViews;
+	}
+
+	/**
+	 * 
+	 * @return The indices of the resources in the resource maps of this game
+	 */
+	public ResourceRegistry getResourceRegistry() {
+		return resourceRegistry;
+	}
+
+	/**
+	 * Use a registry that is shared with other games, such as the other games of the same mod, so that their resources have the same indices.
+	 * Must be set before any resources are added to the entities of this game.
+	 * 
+	 * @param resourceRegistry The registry to use
+	 */
+	public void setResourceRegistry(ResourceRegistry resourceRegistry) {
+		this.resourceRegistry = Objects.requireNonNull(resourceRegistry);
+	}
+
 	/**
 	 * Add a system to the systems list.
 	 * If the game is in any other state besides NOT_STARTED, the system will be started
@@ -171,7 +363,7 @@ public final class ECSGame {
 	 * @param entity The entity to remove
 	 */
 	void removeEntity(Entity entity) {
-		entities.remove(entity.getId());
+		entities[entity.getId()] = null;
 	}
 
 	/**
@@ -180,7 +372,13 @@ public final class ECSGame {
 	 * @return A list of matching entities.
 	 */
 	public List<Entity> findEntities(Predicate<Entity> condition) {
-		return entities.values().stream().filter(condition).collect(Collectors.toList());
+		List<Entity> result = new ArrayList<>();
+		for (Entity entity : entities) {
+			if (entity != null && condition.test(entity)) {
+				result.add(entity);
+			}
+		}
+		return result;
 	}
 
 	/**
@@ -200,7 +398,8 @@ public final class ECSGame {
 	 * @return The requested entity object
 	 */
 	public Entity getEntity(int entity) {
-		return entities.get(entity);
+		Entity[] entities = this.entities;
+		return entity >= 0 && entity < entities.length ? entities[entity] : null;
 	}
 	
 	/**
@@ -1,36 +1,212 @@
 package com.cardshifter.modapi.base;
 
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.cardshifter.modapi.events.EntityRemoveEvent;
+import groovy.transform.PackageScope;
 
 public final class Entity {
 
-    private Map<Class<? extends Component>, Component> components = new HashMap<>();
-
     private final int id;
     private final ECSGame game;
 
     private boolean removed;
 
+    /**
+     * The entity to copy the components of this entity from when they are first needed,
+     * or null if the components have already been copied
+     */
+    private volatile Entity prototype;
+
+    /**
+     * The copies of the components of the prototype that have been read while this entity is lazy, indexed by type id.
+     * They belong to this entity but are not added to the game until the entity is materialized.
+     */
+    private volatile Component[] lazyComponents;
+
     public Entity(ECSGame game, int id) {
         this.game = game;
         this.id = id;
     }
 
     public Entity addComponent(Component component) {
-        components.put(component.getClass(), component);
+        game.getComponentStore().set(this, ComponentTypes.idFor(component.getClass()), component);
         component.setEntity(this);
         return this;
     }
 
     public boolean hasComponent(Class<? extends Component> clazz) {
-        return components.containsKey(clazz);
+        int typeId = ComponentTypes.idFor(clazz);
+        Entity from = prototype;
+        return game.getComponentStore().get(id, typeId) != null || (from != null && from.source(typeId) != null);
     }
 
     public <T extends Component> T getComponent(Class<T> clazz) {
-        return clazz.cast(components.get(clazz));
+        return clazz.cast(component(ComponentTypes.idFor(clazz)));
+    }
+
+    /**
+     * Get a component of this entity. While this entity is lazy, a component of the prototype is copied for this entity
+     * when it is first read, without adding it to the game, see {@link #lazyCopy()}.
+     *
+     * @param typeId The type id of the component
+     * @return The component, or null if this entity does not have a component of the type
+     */
+    @PackageScope Component component(int typeId) {
+        Component result = game.getComponentStore().get(id, typeId);
+        Entity from = prototype;
+        if (result == null && from != null && from.source(typeId) != null) {
+            return lazyComponent(from, typeId);
+        }
+        return result;
+    }
+
+    /**
+     * Read a component without copying it for this entity while it is lazy, see {@link #lazyCopy()}.
+     * The reader may be given the component that this entity would copy, which belongs to another entity,
+     * so it should only read values from the component and not keep it.
+     *
+     * @param clazz The type of the component
+     * @param reader The function that reads the component
+     * @return The result of the reader, or null if this entity does not have a component of the type
+     */
+    public <T extends Component, R> R read(Class<T> clazz, Function<T, R> reader) {
+        int typeId = ComponentTypes.idFor(clazz);
+        Component component = game.getComponentStore().get(id, typeId);
+        if (component == null) {
+            component = source(typeId);
+        }
+        return component == null ? null : reader.apply(clazz.cast(component));
+    }
+
+    /**
+     * Get the copy of a component of the prototype, copying it if it has not been read before.
+     * Several threads may read the same lazy entity at once, see {@link ECSGame#readUnlocked}.
+     */
+    private Component lazyComponent(Entity from, int typeId) {
+        Component[] lazy = lazyComponents;
+        if (lazy != null && typeId < lazy.length && lazy[typeId] != null) {
+            return lazy[typeId];
+        }
+        synchronized (this) {
+            lazy = lazyComponents;
+            if (lazy != null && typeId < lazy.length && lazy[typeId] != null) {
+                return lazy[typeId];
+            }
+            Component copy = ((CopyableComponent) from.source(typeId)).copy(this);
+            copy.setEntity(this);
+            Component[] updated = lazy == null ? new Component[typeId + 1] : Arrays.copyOf(lazy, Math.max(typeId + 1, lazy.length));
+            updated[typeId] = copy;
+            lazyComponents = updated;
+            return copy;
+        }
+    }
+
+    /**
+     * Find the component that a copy of this entity copies, without copying anything for this entity:
+     * the component of this entity, the copy that was read while this entity is lazy, or the component of the prototype.
+     *
+     * @param typeId The type id of the component
+     * @return The component, or null if there is none or if it is not copyable
+     */
+    private Component source(int typeId) {
+        Component component = game.getComponentStore().get(id, typeId);
+        if (component != null) {
+            return component instanceof CopyableComponent ? component : null;
+        }
+        Component[] lazy = lazyComponents;
+        if (lazy != null && typeId < lazy.length && lazy[typeId] != null) {
+            return lazy[typeId];
+        }
+        Entity from = prototype;
+        return from != null ? from.source(typeId) : null;
+    }
+
+    /**
+     * @return The components that a copy of this entity copies, by type id, see {@link #source(int)}
+     */
+    private SortedMap<Integer, Component> sources() {
+        Entity from = prototype;
+        SortedMap<Integer, Component> result = from != null ? from.sources() : new TreeMap<>();
+        Component[] lazy = lazyComponents;
+        if (lazy != null) {
+            for (int typeId = 0; typeId < lazy.length; typeId++) {
+                if (lazy[typeId] != null) {
+                    result.put(typeId, lazy[typeId]);
+                }
+            }
+        }
+        for (Component component : game.getComponentStore().getAll(this)) {
+            int typeId = ComponentTypes.idFor(component.getClass());
+            if (component instanceof CopyableComponent) {
+                result.put(typeId, component);
+            } else {
+                result.remove(typeId);
+            }
+        }
+        return result;
+    }
+
+    private boolean providesAny(Class<? extends Component> componentClass) {
+        return sources().values().stream().anyMatch({component -> componentClass.isInstance(component)});
+    }
+
+    /**
+     * Adds the copyable components of the prototype that this entity does not already have to the game,
+     * so that the entity shows up in component queries. Components that have already been read are added
+     * as they are, the others are copied. Does nothing if the entity is not lazy.
+     *
+     * @see #lazyCopy()
+     */
+    public void materialize() {
+        Entity from = prototype;
+        if (from == null) {
+            return;
+        }
+        Component[] lazy = lazyComponents;
+        prototype = null;
+        lazyComponents = null;
+        for (Map.Entry<Integer, Component> source : from.sources().entrySet()) {
+            int typeId = source.getKey();
+            if (game.getComponentStore().get(id, typeId) != null) {
+                continue;
+            }
+            if (lazy != null && typeId < lazy.length && lazy[typeId] != null) {
+                game.getComponentStore().set(this, typeId, lazy[typeId]);
+            } else {
+                addComponent(((CopyableComponent) source.getValue()).copy(this));
+            }
+        }
+    }
+
+    /**
+     * @return The components of this entity, together with the components of the prototype for this entity while it is lazy
+     */
+    private Collection<Component> allComponents() {
+        Collection<Component> components = game.getComponentStore().getAll(this);
+        Entity from = prototype;
+        if (from == null) {
+            return components;
+        }
+        List<Component> result = new ArrayList<>(components);
+        for (int typeId : from.sources().keySet()) {
+            if (game.getComponentStore().get(id, typeId) == null) {
+                result.add(lazyComponent(from, typeId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the components of this entity still need to be copied from another entity
+     *
+     * @return True if the components are copied when they are first needed
+     * @see #lazyCopy()
+     */
+    public boolean isLazy() {
+        return prototype != null;
     }
 
     public <T extends Component> T get(ComponentRetriever<T> retriever) {
@@ -59,9 +235,12 @@ public final class Entity {
      * @return A collection with all the components extending the specified class
      */
     public <T extends Component> Collection<T> getSuperComponents(Class<T> componentClass) {
-        return this.components.entrySet().stream()
-                .filter({entry -> componentClass.isAssignableFrom(entry.getKey())})
-                .map({entry -> componentClass.cast(entry.getValue())})
+        Entity from = prototype;
+        Collection<Component> components = from != null && from.providesAny(componentClass)
+                ? allComponents() : game.getComponentStore().getAll(this);
+        return components.stream()
+                .filter({component -> componentClass.isInstance(component)})
+                .map({component -> componentClass.cast(component)})
                 .collect(Collectors.toList());
     }
 
@@ -72,7 +251,9 @@ public final class Entity {
 
     public void destroy() {
         getGame().executeEvent(new EntityRemoveEvent(this), {
-            components.clear();
+            prototype = null;
+            lazyComponents = null;
+            game.getComponentStore().removeAll(this);
             game.removeEntity(this);
             removed = true;
         });
@@ -88,7 +269,8 @@ public final class Entity {
     }
 
     public void removeComponent(Class<? extends Component> component) {
-        Component comp = this.components.remove(component);
+        materialize();
+        Component comp = game.getComponentStore().remove(this, ComponentTypes.idFor(component));
         comp.setEntity(null);
     }
 
@@ -100,21 +282,65 @@ public final class Entity {
      * @return A copy of this entity
      */
     public Entity copy() {
+        return copyTo(game);
+    }
+
+    /**
+     * Copy this entity and all of it's copyable components to a game, which may be another game than the game of this entity
+     *
+     * @see CopyableComponent
+     *
+     * @param target The game to create the copy in
+     * @return A copy of this entity
+     */
+    public Entity copyTo(ECSGame target) {
         if (isRemoved()) {
             throw new IllegalStateException("Unable to copy a removed entity");
         }
-        Entity copy = game.newEntity();
+        Entity copy = target.newEntity();
 
-        for (Component comp : components.values()) {
-            if (comp instanceof CopyableComponent) {
-                CopyableComponent copyable = (CopyableComponent) comp;
-                copy.addComponent(copyable.copy(copy));
-            }
+        for (Component comp : sources().values()) {
+            CopyableComponent copyable = (CopyableComponent) comp;
+            copy.addComponent(copyable.copy(copy));
         }
 
         return copy;
     }
 
+    /**
+     * Copy this entity, but only copy each copyable component when it is first read.
+     * Components that are added to the copy before then are kept instead of the components of this entity.
+     * Until the copy is materialized, its components are not added to the game and the copy does not show up
+     * in queries for them, so cards are materialized when they leave their deck, see {@link com.cardshifter.modapi.cards.CardComponent}.
+     * This entity should not be changed while it has lazy copies that have not copied the components yet.
+     *
+     * @see CopyableComponent
+     *
+     * @return A copy of this entity in the same game
+     */
+    public Entity lazyCopy() {
+        return lazyCopyTo(game);
+    }
+
+    /**
+     * Copy this entity to a game, which may be another game than the game of this entity,
+     * but only copy each copyable component when it is first read, see {@link #lazyCopy()}.
+     * Values can be read from the copy without copying the components, see {@link #read(Class, Function)}.
+     * This entity is read by the thread of the game that is copied to, so it should not be changed at all
+     * while it has lazy copies in other games.
+     *
+     * @param target The game to create the copy in
+     * @return A lazy copy of this entity
+     */
+    public Entity lazyCopyTo(ECSGame target) {
+        if (isRemoved()) {
+            throw new IllegalStateException("Unable to copy a removed entity");
+        }
+        Entity copy = target.newEntity();
+        copy.prototype = this;
+        return copy;
+    }
+
     /**
      * Apply an effect to this entity
      * @param effect Effect to apply
@@ -129,7 +355,7 @@ public final class Entity {
         if (entity == null) {
             return "null entity";
         }
-        return entity.toString() + " --- " + entity.components.toString();
+        return entity.toString() + " --- " + entity.getSuperComponents(Component.class).toString();
     }
 
     public String debug() {
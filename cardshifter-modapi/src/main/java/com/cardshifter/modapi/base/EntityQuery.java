@@ -0,0 +1,136 @@
+package com.cardshifter.modapi.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A live view of all the entities in a game that have components of all the specified types.
+ * The view is updated whenever a component is added or removed and when an entity is destroyed,
+ * so it can be kept and iterated again instead of filtering all the entities of the game.
+ * 
+ * Entities are ordered by id. Iterating using {@link #size()} and {@link #get(int)}, or using {@link #forEach(Consumer)},
+ * does not allocate. As the view is live, make a copy before changing the matching components while iterating it.
+ * 
+ * @see ECSGame#query(Class...)
+ */
+public final class EntityQuery implements Iterable<Entity> {
+
+	private final ComponentStore store;
+	private final int[] typeIds;
+	private final List<Entity> entities = new ArrayList<>();
+	private final List<Entity> view = Collections.unmodifiableList(entities);
+
+	EntityQuery(ComponentStore store, int[] typeIds) {
+		this.store = store;
+		this.typeIds = typeIds;
+	}
+
+	boolean matches(Entity entity) {
+		for (int typeId : typeIds) {
+			if (store.get(entity.getId(), typeId) == null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param sortedTypeIds Sorted and distinct component type ids
+	 * @return True if this query is for exactly the given component types
+	 */
+	boolean hasTypes(int[] sortedTypeIds) {
+		return Arrays.equals(typeIds, sortedTypeIds);
+	}
+
+	/**
+	 * Called when a component of one of the types of this query has been added to or removed from an entity
+	 * 
+	 * @param entity The entity that was changed
+	 */
+	void update(Entity entity) {
+		int index = indexOf(entity);
+		boolean matches = matches(entity);
+		if (matches && index < 0) {
+			entities.add(-index - 1, entity);
+		}
+		else if (!matches && index >= 0) {
+			entities.remove(index);
+		}
+	}
+
+	/**
+	 * Binary search for an entity by id
+	 * 
+	 * @param entity The entity to search for
+	 * @return The index of the entity, or <code>-(insertion point) - 1</code> if it is not part of this query
+	 */
+	private int indexOf(Entity entity) {
+		int id = entity.getId();
+		int low = 0;
+		int high = entities.size() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int midId = entities.get(mid).getId();
+			if (midId < id) {
+				low = mid + 1;
+			}
+			else if (midId > id) {
+				high = mid - 1;
+			}
+			else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	public int size() {
+		return entities.size();
+	}
+
+	public boolean isEmpty() {
+		return entities.isEmpty();
+	}
+
+	public Entity get(int index) {
+		return entities.get(index);
+	}
+
+	public boolean contains(Entity entity) {
+		return indexOf(entity) >= 0;
+	}
+
+	@Override
+	public void forEach(Consumer<? super Entity> action) {
+		for (int i = 0; i < entities.size(); i++) {
+			action.accept(entities.get(i));
+		}
+	}
+
+	@Override
+	public Iterator<Entity> iterator() {
+		return view.iterator();
+	}
+
+	public Stream<Entity> stream() {
+		return view.stream();
+	}
+
+	/**
+	 * @return A live, read-only list view of the matching entities
+	 */
+	public List<Entity> asList() {
+		return view;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityQuery " + entities;
+	}
+
+}
@@ -1,5 +1,7 @@
 package com.cardshifter.modapi.base;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -8,7 +10,7 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.Objects;
 
 public class Retrievers {
 
@@ -17,7 +19,7 @@ public class Retrievers {
 	}
 
 	public static <T extends Component> ComponentRetriever<T> singleton(Class<T> class1) {
-		return new ComponentRetriever<T>(null) {
+		return new ComponentRetriever<T>(class1) {
 			
 			@Override
 			public boolean has(Entity entity) {
@@ -33,45 +35,62 @@ public class Retrievers {
 	}
 
 	public static <T extends Component> T singleton(ECSGame game, Class<T> class1) {
-		Set<Entity> all = game.getEntitiesWithComponent(class1);
-		if (all.size() != 1) {
-			throw new IllegalStateException("Expected to find exactly one " + class1.getSimpleName() + ", found " + all.size());
-		}
-		return all.iterator().next().getComponent(class1);
+		return game.singleton(class1);
 	}
 
-	public static void inject(Object object, ECSGame game) {
-		List<Field> fields = AccessController.doPrivileged((PrivilegedAction<List<Field>>)() -> {
-			Class<?> clazz = object.getClass();
-			List<Field> result = new ArrayList<>();
-			do {
-				result.addAll(Arrays.asList(clazz.getDeclaredFields()));
-				clazz = clazz.getSuperclass();
-			}
-			while (clazz != Object.class);
-			return result;
-		});
-		AccessController.doPrivileged((PrivilegedAction<Void>)() -> {
-			fields.stream().filter(field -> field.getAnnotation(Retriever.class) != null).forEach(field -> injectField(object, field, game));
-			fields.stream().filter(field -> field.getAnnotation(RetrieverSingleton.class) != null).forEach(field -> injectSingleton(object, field, game));
-			return null;
-		});
+	/**
+	 * How to inject the fields of a class, resolved once per class.
+	 * Each field is either set to a {@link ComponentRetriever} or to a singleton component of the game.
+	 */
+	private static final ClassValue<Injection[]> INJECTIONS = new ClassValue<Injection[]>() {
+		@Override
+		protected Injection[] computeValue(Class<?> type) {
+			return AccessController.doPrivileged((PrivilegedAction<Injection[]>) () -> createInjections(type));
+		}
+	};
+
+	private static class Injection {
+		private final MethodHandle setter;
+		private final ComponentRetriever<?> retriever;
+		private final Class<? extends Component> singleton;
+
+		public Injection(MethodHandle setter, ComponentRetriever<?> retriever, Class<? extends Component> singleton) {
+			this.setter = setter;
+			this.retriever = retriever;
+			this.singleton = singleton;
+		}
+
+		private void inject(Object object, ECSGame game) throws Throwable {
+			setter.invoke(object, retriever != null ? retriever : game.singleton(singleton));
+		}
 	}
 
-	private static void injectSingleton(Object obj, Field field, ECSGame game) {
-		Class<? extends Component> clazz = field.getType().asSubclass(Component.class);
-		AccessController.doPrivileged((PrivilegedAction<Void>)() -> {
-			field.setAccessible(true);
+	public static void inject(Object object, ECSGame game) {
+		for (Injection injection : INJECTIONS.get(object.getClass())) {
 			try {
-				field.set(obj, Retrievers.singleton(game, clazz));
-			} catch (IllegalArgumentException | IllegalAccessException e) {
+				injection.inject(object, game);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Throwable e) {
 				throw new RuntimeException(e);
 			}
-			return null;
-		});
+		}
+	}
+
+	private static Injection[] createInjections(Class<?> type) {
+		List<Field> fields = new ArrayList<>();
+		for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			fields.addAll(Arrays.asList(clazz.getDeclaredFields()));
+		}
+		List<Injection> result = new ArrayList<>();
+		fields.stream().filter(field -> field.getAnnotation(Retriever.class) != null)
+			.map(Retrievers::retrieverInjection).filter(Objects::nonNull).forEach(result::add);
+		fields.stream().filter(field -> field.getAnnotation(RetrieverSingleton.class) != null)
+			.map(field -> new Injection(setter(field), null, field.getType().asSubclass(Component.class))).forEach(result::add);
+		return result.toArray(new Injection[result.size()]);
 	}
 
-	private static void injectField(Object obj, Field field, ECSGame game) {
+	private static Injection retrieverInjection(Field field) {
 		if (field.getType() != ComponentRetriever.class) {
 			throw new RuntimeException(field.getType() + " is not a ComponentRetriever");
 		}
@@ -82,12 +101,17 @@ public class Retrievers {
 			ParameterizedType aType = (ParameterizedType) genericFieldType;
 			Type[] fieldArgTypes = aType.getActualTypeArguments();
 			Class<?> fieldArgClass = (Class<?>) fieldArgTypes[0];
-			try {
-				field.setAccessible(true);
-				field.set(obj, Retrievers.component(fieldArgClass.asSubclass(Component.class)));
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			return new Injection(setter(field), Retrievers.component(fieldArgClass.asSubclass(Component.class)), null);
+		}
+		return null;
+	}
+
+	private static MethodHandle setter(Field field) {
+		try {
+			field.setAccessible(true);
+			return MethodHandles.lookup().unreflectSetter(field);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
 		}
 	}
 	
@@ -33,6 +33,10 @@ public class CardComponent extends Component {
 	
 	private void moveTo(ZoneComponent target, boolean top) {
 		Entity card = getEntity();
+		if (currentZone != null && !(target instanceof DeckComponent)) {
+			// cards in decks and in the card library can be lazy copies, which need all their components once they are moved out
+			card.materialize();
+		}
 		ZoneChangeEvent event = new ZoneChangeEvent(currentZone, target, card);
 		
 		executeEvent(event, () -> {
@@ -30,16 +30,17 @@ public class DeckComponent extends ZoneComponent {
             String cardId = chosen.getKey();
             int count = chosen.getValue();
 
+            Stream<Entity> entities = game.getEntitiesWithComponent(ECSAttributeMap.class).stream().filter(e ->
+                e.getComponent(ECSAttributeMap.class).get(Attributes.ID)
+                    .map(ECSAttributeData::get)
+                    .orElse("")
+                    .equals(cardId)
+                );
+
+            Entity existing = entities.findFirst().orElseThrow(() -> new RuntimeException("Unable to find an entity with id " + cardId));
             for (int i = 0; i < count; i++) {
-                Stream<Entity> entities = game.getEntitiesWithComponent(ECSAttributeMap.class).stream().filter(e ->
-                    e.getComponent(ECSAttributeMap.class).get(Attributes.ID)
-                        .map(ECSAttributeData::get)
-                        .orElse("")
-                        .equals(cardId)
-                    );
-
-                Entity existing = entities.findFirst().orElseThrow(() -> new RuntimeException("Unable to find an entity with id " + cardId));
-                Entity copy = existing.copy();
+                // the card components are only copied when the card is drawn or inspected
+                Entity copy = existing.lazyCopy();
                 deck.addOnBottom(copy);
             }
         }
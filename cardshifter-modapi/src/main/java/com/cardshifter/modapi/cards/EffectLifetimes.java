@@ -0,0 +1,103 @@
+package com.cardshifter.modapi.cards;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.events.EntityEvent;
+import com.cardshifter.modapi.events.EntityRemoveEvent;
+import com.cardshifter.modapi.events.EventExecutor;
+import com.cardshifter.modapi.events.EventHandler;
+import com.cardshifter.modapi.events.IEvent;
+
+/**
+ * Keeps track of the event handlers of effects that last as long as an entity is on the battlefield.
+ * All the handlers that are registered for an entity are removed when the entity is removed
+ * or is moved to a zone that is not a battlefield.
+ */
+public final class EffectLifetimes {
+
+	private final EventExecutor events;
+	private final Map<Entity, Lifetime> lifetimes = new HashMap<>();
+
+	/**
+	 * The identifier for the handlers of all effects on one entity
+	 */
+	private static class Lifetime {
+		private final Entity entity;
+
+		public Lifetime(Entity entity) {
+			this.entity = entity;
+		}
+
+		@Override
+		public String toString() {
+			return "Lifetime [" + entity + "]";
+		}
+	}
+
+	public EffectLifetimes(EventExecutor events) {
+		this.events = events;
+	}
+
+	private Lifetime lifetimeOf(Entity entity) {
+		Lifetime lifetime = lifetimes.get(entity);
+		if (lifetime == null) {
+			lifetime = new Lifetime(entity);
+			lifetimes.put(entity, lifetime);
+			events.registerEntityHandlerAfter(lifetime, entity, EntityRemoveEvent.class, event -> end(entity));
+			events.registerEntityHandlerAfter(lifetime, entity, ZoneChangeEvent.class, this::zoneChange);
+		}
+		return lifetime;
+	}
+
+	private void zoneChange(ZoneChangeEvent event) {
+		if (!(event.getDestination() instanceof BattlefieldComponent)) {
+			end(event.getCard());
+		}
+	}
+
+	/**
+	 * Removes the handlers of all the effects on an entity.
+	 * 
+	 * @param entity The entity whose effects should end
+	 */
+	public void end(Entity entity) {
+		Lifetime lifetime = lifetimes.remove(entity);
+		if (lifetime != null) {
+			events.removeListenersWithIdentifier(lifetime);
+		}
+	}
+
+	/**
+	 * @param entity The entity to check
+	 * @return True if there are effects on the entity
+	 */
+	public boolean hasEffects(Entity entity) {
+		return lifetimes.containsKey(entity);
+	}
+
+	public <T extends IEvent> EventHandler<T> registerHandlerAfter(Entity entity, Class<T> eventClass, Consumer<T> handler) {
+		return events.registerHandlerAfter(lifetimeOf(entity), eventClass, handler);
+	}
+
+	public <T extends IEvent> EventHandler<T> registerHandlerBefore(Entity entity, Class<T> eventClass, Consumer<T> handler) {
+		return events.registerHandlerBefore(lifetimeOf(entity), eventClass, handler);
+	}
+
+	/**
+	 * Registers a handler that is only informed about the events that are about the entity itself.
+	 */
+	public <T extends EntityEvent> EventHandler<T> registerEntityHandlerAfter(Entity entity, Class<T> eventClass, Consumer<T> handler) {
+		return events.registerEntityHandlerAfter(lifetimeOf(entity), entity, eventClass, handler);
+	}
+
+	/**
+	 * Registers a handler that is only informed about the events that are about the entity itself.
+	 */
+	public <T extends EntityEvent> EventHandler<T> registerEntityHandlerBefore(Entity entity, Class<T> eventClass, Consumer<T> handler) {
+		return events.registerEntityHandlerBefore(lifetimeOf(entity), entity, eventClass, handler);
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.cardshifter.modapi.events;
+
+import com.cardshifter.modapi.base.Entity;
+
+/**
+ * An event that is about a specific entity.
+ * Handlers can be registered for only the events about a single entity, see
+ * {@link EventExecutor#registerEntityHandlerAfter(Object, Entity, Class, java.util.function.Consumer)}
+ */
+public interface EntityEvent extends IEvent {
+
+	/**
+	 * @return The entity that this event is about
+	 */
+	Entity getEntity();
+
+}
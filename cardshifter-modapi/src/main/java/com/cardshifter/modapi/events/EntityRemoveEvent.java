@@ -2,7 +2,7 @@ package com.cardshifter.modapi.events;
 
 import com.cardshifter.modapi.base.Entity;
 
-public class EntityRemoveEvent implements IEvent {
+public class EntityRemoveEvent implements EntityEvent {
 
 	private final Entity entity;
 
@@ -10,6 +10,7 @@ public class EntityRemoveEvent implements IEvent {
 		this.entity = entity;
 	}
 	
+	@Override
 	public Entity getEntity() {
 		return entity;
 	}
@@ -1,57 +1,214 @@
 package com.cardshifter.modapi.events;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import com.cardshifter.modapi.base.CancellableEvent;
+import com.cardshifter.modapi.base.Entity;
 
 public class EventExecutor implements EventExecution {
 
 	private static final Logger logger = LogManager.getLogger(EventExecutor.class);
 	
-	protected final Map<Class<? extends IEvent>, Collection<EventHandler<?>>> bindings;
+	private final Map<Class<? extends IEvent>, EventHandlers> bindings;
+	/**
+	 * The handlers to run for each concrete event class, combined from the bindings of all its supertypes.
+	 * Entries are removed when the bindings of any of the supertypes change.
+	 * Several threads may look up handlers at once while the game does not change, see {@link com.cardshifter.modapi.base.ECSGame#readUnlocked}
+	 */
+	private final Map<Class<?>, EventHandlers> dispatchTables;
+	private final Map<Class<? extends IEvent>, Map<Entity, EventHandlers>> entityBindings;
+	private final Map<Class<? extends IEvent>, Map<Integer, EventHandlers>> keyedBindings;
+	/**
+	 * The handlers to run for each concrete keyed event class, indexed by key. Each entry combines the handlers of
+	 * {@link #dispatchTables} with the keyed handlers for that key, and is removed together with them.
+	 * The arrays are replaced instead of changed, for the same reason as above.
+	 */
+	private final Map<Class<?>, EventHandlers[]> keyedDispatchTables;
+	private final Map<Object, List<Registration>> registrations;
+	private long registrationCount;
+	/**
+	 * The order of the next invalidation handler, lower than the order of all other handlers
+	 */
+	private long invalidationCount = Long.MIN_VALUE;
+	private long executedCount;
+	
+	/**
+	 * A handler together with the handlers it was added to and where those handlers are stored,
+	 * so that it can be removed without looking through the bindings of all event classes.
+	 */
+	private static class Registration {
+		private final Map<?, EventHandlers> container;
+		private final Object key;
+		private final EventHandlers handlers;
+		private final EventHandler<?> handler;
+
+		public Registration(Map<?, EventHandlers> container, Object key, EventHandlers handlers, EventHandler<?> handler) {
+			this.container = container;
+			this.key = key;
+			this.handlers = handlers;
+			this.handler = handler;
+		}
+		
+		/**
+		 * @return True if any handler was removed
+		 */
+		private boolean remove(Predicate<EventHandler<?>> condition) {
+			if (!handlers.removeIf(condition)) {
+				return false;
+			}
+			if (handlers.isEmpty()) {
+				container.remove(key, handlers);
+			}
+			return true;
+		}
+	}
 	
 	public EventExecutor() {
-		this.bindings = new HashMap<Class<? extends IEvent>, Collection<EventHandler<?>>>();
-	}
-	
-	private <T extends IEvent> T executeEventInternal(T event, Predicate<EventHandler<?>> predicate) {
-		Collection<EventHandler<?>> handlers = this.bindings.get(event.getClass());
-		if (handlers != null) {
-			List<EventHandler<?>> interestedHandlers = handlers.stream().filter(predicate).collect(Collectors.toList());
-			ListIterator<EventHandler<?>> iterator = interestedHandlers.listIterator();
-			while (iterator.hasNext()) {
-				EventHandler<?> performer = iterator.next();
-//				int index = iterator.nextIndex();
-//				logger.info("Handling " + event + " " + index + " / " + interestedHandlers.size() + ": " + performer);
-				performer.execute(event);
+		this.bindings = new HashMap<Class<? extends IEvent>, EventHandlers>();
+		this.dispatchTables = new ConcurrentHashMap<Class<?>, EventHandlers>();
+		this.entityBindings = new HashMap<Class<? extends IEvent>, Map<Entity, EventHandlers>>();
+		this.keyedBindings = new HashMap<Class<? extends IEvent>, Map<Integer, EventHandlers>>();
+		this.keyedDispatchTables = new ConcurrentHashMap<Class<?>, EventHandlers[]>();
+		this.registrations = new IdentityHashMap<Object, List<Registration>>();
+	}
+	
+	private <T extends IEvent> T executeEventInternal(T event, boolean after) {
+		if (!(event instanceof ReadOnlyEvent)) {
+			executedCount++;
+		}
+		EventHandlers handlers = event instanceof KeyedEvent
+				? keyedDispatchTable(event.getClass(), ((KeyedEvent) event).getEventKey())
+				: dispatchTable(event.getClass());
+		EventHandlers entityHandlers = null;
+		if (event instanceof EntityEvent) {
+			Map<Entity, EventHandlers> bound = this.entityBindings.get(event.getClass());
+			if (bound != null) {
+				entityHandlers = bound.get(((EntityEvent) event).getEntity());
 			}
 		}
+		if (entityHandlers == null) {
+			execute(handlers, event, after);
+		}
+		else {
+			execute(handlers, entityHandlers, event, after);
+		}
 		return event;
 	}
 	
+	private EventHandlers dispatchTable(Class<?> eventClass) {
+		EventHandlers table = dispatchTables.get(eventClass);
+		if (table == null) {
+			List<EventHandlers> applicable = new ArrayList<>();
+			for (Map.Entry<Class<? extends IEvent>, EventHandlers> entry : bindings.entrySet()) {
+				if (entry.getKey().isAssignableFrom(eventClass)) {
+					applicable.add(entry.getValue());
+				}
+			}
+			table = applicable.size() == 1 ? applicable.get(0) : EventHandlers.merge(applicable);
+			dispatchTables.put(eventClass, table);
+		}
+		return table;
+	}
+	
+	private EventHandlers keyedDispatchTable(Class<?> eventClass, int key) {
+		EventHandlers[] tables = keyedDispatchTables.get(eventClass);
+		EventHandlers table = tables != null && key < tables.length ? tables[key] : null;
+		if (table == null) {
+			List<EventHandlers> applicable = new ArrayList<>();
+			applicable.add(dispatchTable(eventClass));
+			for (Map.Entry<Class<? extends IEvent>, Map<Integer, EventHandlers>> entry : keyedBindings.entrySet()) {
+				EventHandlers handlers = entry.getValue().get(key);
+				if (handlers != null && entry.getKey().isAssignableFrom(eventClass)) {
+					applicable.add(handlers);
+				}
+			}
+			table = applicable.size() == 1 ? applicable.get(0) : EventHandlers.merge(applicable);
+			EventHandlers[] updated = tables == null ? new EventHandlers[key + 1] : Arrays.copyOf(tables, Math.max(key + 1, tables.length));
+			updated[key] = table;
+			keyedDispatchTables.put(eventClass, updated);
+		}
+		return table;
+	}
+	
+	private void invalidateDispatchTables(Class<?> registeredClass) {
+		dispatchTables.keySet().removeIf(registeredClass::isAssignableFrom);
+		keyedDispatchTables.keySet().removeIf(registeredClass::isAssignableFrom);
+	}
+	
+	private void execute(EventHandlers handlers, IEvent event, boolean after) {
+		if (handlers == null) {
+			return;
+		}
+		boolean stoppable = event instanceof StoppableEvent;
+		for (EventHandler<?> performer : handlers.get(after)) {
+			if (stoppable && ((StoppableEvent) event).isStopped()) {
+				return;
+			}
+			performer.execute(event);
+		}
+	}
+	
+	/**
+	 * Runs the handlers of the event class and the handlers bound to the entity of the event together,
+	 * in the order in which they were registered.
+	 */
+	private void execute(EventHandlers handlers, EventHandlers entityHandlers, IEvent event, boolean after) {
+		if (handlers == null) {
+			execute(entityHandlers, event, after);
+			return;
+		}
+		EventHandler<?>[] first = handlers.get(after);
+		long[] firstOrders = handlers.orders(after);
+		EventHandler<?>[] second = entityHandlers.get(after);
+		long[] secondOrders = entityHandlers.orders(after);
+		boolean stoppable = event instanceof StoppableEvent;
+		int i = 0;
+		int j = 0;
+		while (i < first.length || j < second.length) {
+			if (stoppable && ((StoppableEvent) event).isStopped()) {
+				return;
+			}
+			if (j >= second.length || (i < first.length && firstOrders[i] < secondOrders[j])) {
+				first[i++].execute(event);
+			}
+			else {
+				second[j++].execute(event);
+			}
+		}
+	}
+	
 	@Override
 	public <T extends IEvent> T executePostEvent(T event) {
-		logger.debug("Execute pre event " + event);
-		return executeEventInternal(event, eh -> eh.isAfter());
+		if (logger.isDebugEnabled()) {
+			logger.debug("Execute post event " + event);
+		}
+		return executeEventInternal(event, true);
 	}
 
 	@Override
 	public <T extends IEvent> T executePreEvent(T event) {
-		logger.debug("Execute post event " + event);
-		return executeEventInternal(event, eh -> !eh.isAfter());
+		if (logger.isDebugEnabled()) {
+			logger.debug("Execute pre event " + event);
+		}
+		return executeEventInternal(event, false);
+	}
+
+	/**
+	 * @return The number of pre- and post-events that have been executed, not counting {@link ReadOnlyEvent}s
+	 */
+	public long getExecutedCount() {
+		return executedCount;
 	}
 
 	/**
@@ -86,37 +243,110 @@ public class EventExecutor implements EventExecution {
 		return event;
 	}
 	
+	/**
+	 * Registers a handler for events of the specified class, including events of any subclass of it.
+	 * The specified class can also be an interface, such as {@link CancellableEvent}.
+	 * 
+	 * @param realParam The event class
+	 * @param handler The handler to register
+	 */
 	public <T extends IEvent> void registerHandler(Class<T> realParam, EventHandler<T> handler) {
-		if (!this.bindings.containsKey(realParam)) {
-			this.bindings.put(realParam, createCollection());
-		}
-		Collection<EventHandler<?>> eventHandlersForEvent = this.bindings.get(realParam);
-		eventHandlersForEvent.add(handler);
+		register(this.bindings, realParam, handler, registrationCount++);
+		invalidateDispatchTables(realParam);
 	}
-
-	protected Collection<EventHandler<?>> createCollection() {
-		return new ArrayList<EventHandler<?>>();
+	
+	/**
+	 * Registers a handler that is only informed about the events that are about the specified entity.
+	 * Unlike {@link #registerHandler(Class, EventHandler)}, only events of exactly the specified class are handled.
+	 * Entity handlers and other handlers for the same event run together, in the order in which they were registered.
+	 * 
+	 * @param entity The entity that the events should be about
+	 * @param realParam The event class
+	 * @param handler The handler to register
+	 */
+	public <T extends EntityEvent> void registerEntityHandler(Entity entity, Class<T> realParam, EventHandler<T> handler) {
+		register(this.entityBindings.computeIfAbsent(realParam, clazz -> new HashMap<>()), entity, handler, registrationCount++);
+	}
+	
+	/**
+	 * Registers a handler that is only informed about the events that have the specified key.
+	 * Like {@link #registerHandler(Class, EventHandler)}, events of any subclass of the specified class are also handled.
+	 * 
+	 * @param realParam The event class
+	 * @param key The key that the events should have, see {@link KeyedEvent#getEventKey()}
+	 * @param handler The handler to register
+	 */
+	public <T extends KeyedEvent> void registerKeyedHandler(Class<T> realParam, int key, EventHandler<T> handler) {
+		register(this.keyedBindings.computeIfAbsent(realParam, clazz -> new HashMap<>()), key, handler, registrationCount++);
+		invalidateDispatchTables(realParam);
+	}
+	
+	private <K> void register(Map<K, EventHandlers> container, K key, EventHandler<?> handler, long order) {
+		EventHandlers eventHandlersForEvent = container.get(key);
+		if (eventHandlersForEvent == null) {
+			eventHandlersForEvent = new EventHandlers();
+			container.put(key, eventHandlersForEvent);
+		}
+		eventHandlersForEvent.add(handler, order);
+		this.registrations.computeIfAbsent(handler.getIdentifier(), id -> new ArrayList<>())
+			.add(new Registration(container, key, eventHandlersForEvent, handler));
 	}
 
 	public void clearListeners() {
 		this.bindings.clear();
+		this.dispatchTables.clear();
+		this.entityBindings.clear();
+		this.keyedBindings.clear();
+		this.keyedDispatchTables.clear();
+		this.registrations.clear();
 	}
 
 	public void removeHandler(EventHandler<?> listener) {
-		for (Entry<Class<? extends IEvent>, Collection<EventHandler<?>>> ee : bindings.entrySet()) {
-			Iterator<EventHandler<?>> it = ee.getValue().iterator();
-			while (it.hasNext()) {
-				EventHandler<?> curr = it.next();
-				if (curr == listener) {
-					it.remove();
-				}
+		List<Registration> registered = registrations.get(listener.getIdentifier());
+		if (registered == null) {
+			return;
+		}
+		registered.removeIf(registration -> {
+			if (registration.handler != listener) {
+				return false;
 			}
+			removed(registration, registration.remove(eh -> eh == listener));
+			return true;
+		});
+		if (registered.isEmpty()) {
+			registrations.remove(listener.getIdentifier());
 		}
 	}
 	
+	/**
+	 * Removes all handlers that were registered with the specified identifier.
+	 * Only the event classes that the identifier has handlers for are affected.
+	 * 
+	 * @param identifier The identifier that was used when registering the handlers, compared by identity
+	 */
 	public void removeListenersWithIdentifier(Object identifier) {
-		for (Entry<Class<? extends IEvent>, Collection<EventHandler<?>>> ee : bindings.entrySet()) {
-			ee.getValue().removeIf(eh -> eh.getIdentifier() == identifier);
+		List<Registration> registered = registrations.remove(identifier);
+		if (registered == null) {
+			return;
+		}
+		for (Registration registration : registered) {
+			removed(registration, registration.remove(eh -> eh.getIdentifier() == identifier));
+		}
+	}
+	
+	private void removed(Registration registration, boolean changed) {
+		if (!changed) {
+			return;
+		}
+		if (registration.container == bindings) {
+			invalidateDispatchTables((Class<?>) registration.key);
+			return;
+		}
+		for (Map.Entry<Class<? extends IEvent>, Map<Integer, EventHandlers>> entry : keyedBindings.entrySet()) {
+			if (entry.getValue() == registration.container) {
+				invalidateDispatchTables(entry.getKey());
+				return;
+			}
 		}
 	}
 	
@@ -126,10 +356,51 @@ public class EventExecutor implements EventExecution {
 		return listener;
 	}
 
+	/**
+	 * Registers a handler that runs after events of the specified class, before all handlers that were registered in another way.
+	 * This is meant for handlers that invalidate cached values, so that the other handlers of the same event read up-to-date values.
+	 * Such handlers should not change the game.
+	 * 
+	 * @param identifier The identifier to remove the handler with
+	 * @param realParam The event class, see {@link #registerHandler(Class, EventHandler)}
+	 * @param handler The handler to register
+	 * @return The registered handler
+	 */
+	public <T extends IEvent> EventHandler<T> registerInvalidationHandler(Object identifier, Class<T> realParam, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, true);
+		register(this.bindings, realParam, listener, invalidationCount++);
+		invalidateDispatchTables(realParam);
+		return listener;
+	}
+
 	public <T extends IEvent> EventHandler<T> registerHandlerBefore(Object identifier, Class<T> realParam, Consumer<T> handler) {
 		EventHandler<T> listener = new EventHandler<T>(identifier, handler, false);
 		registerHandler(realParam, listener);
 		return listener;
 	}
 
+	public <T extends KeyedEvent> EventHandler<T> registerKeyedHandlerAfter(Object identifier, Class<T> realParam, int key, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, true);
+		registerKeyedHandler(realParam, key, listener);
+		return listener;
+	}
+
+	public <T extends KeyedEvent> EventHandler<T> registerKeyedHandlerBefore(Object identifier, Class<T> realParam, int key, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, false);
+		registerKeyedHandler(realParam, key, listener);
+		return listener;
+	}
+
+	public <T extends EntityEvent> EventHandler<T> registerEntityHandlerAfter(Object identifier, Entity entity, Class<T> realParam, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, true);
+		registerEntityHandler(entity, realParam, listener);
+		return listener;
+	}
+
+	public <T extends EntityEvent> EventHandler<T> registerEntityHandlerBefore(Object identifier, Entity entity, Class<T> realParam, Consumer<T> handler) {
+		EventHandler<T> listener = new EventHandler<T>(identifier, handler, false);
+		registerEntityHandler(entity, realParam, listener);
+		return listener;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.cardshifter.modapi.events;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A list of handlers, split into the handlers to run before and after an event.
+ * The arrays are replaced whenever a handler is added or removed, so that an event can be dispatched
+ * by looping over them directly, even if handlers are added or removed while the event is executing.
+ * Each handler is stored together with the order in which it was registered.
+ */
+final class EventHandlers {
+
+	private static final EventHandler<?>[] NONE = new EventHandler<?>[0];
+	private static final long[] NO_ORDERS = new long[0];
+
+	private volatile EventHandler<?>[] before = NONE;
+	private volatile EventHandler<?>[] after = NONE;
+	private long[] beforeOrders = NO_ORDERS;
+	private long[] afterOrders = NO_ORDERS;
+
+	EventHandler<?>[] get(boolean after) {
+		return after ? this.after : this.before;
+	}
+
+	/**
+	 * @param after Whether to get the orders of the handlers to run after the event
+	 * @return The registration orders of the handlers returned by {@link #get(boolean)}, which must be called first
+	 */
+	long[] orders(boolean after) {
+		return after ? this.afterOrders : this.beforeOrders;
+	}
+
+	/**
+	 * @param handler The handler to add
+	 * @param order The order of the handler, which decides where it runs among the other handlers
+	 */
+	void add(EventHandler<?> handler, long order) {
+		if (handler.isAfter()) {
+			int index = insertionPoint(afterOrders, order);
+			after = insert(after, index, handler);
+			afterOrders = insert(afterOrders, index, order);
+		}
+		else {
+			int index = insertionPoint(beforeOrders, order);
+			before = insert(before, index, handler);
+			beforeOrders = insert(beforeOrders, index, order);
+		}
+	}
+
+	/**
+	 * @param condition Which handlers to remove
+	 * @return True if any handler was removed
+	 */
+	boolean removeIf(Predicate<EventHandler<?>> condition) {
+		boolean changed = false;
+		if (matchCount(before, condition) > 0) {
+			beforeOrders = without(before, beforeOrders, condition);
+			before = without(before, condition);
+			changed = true;
+		}
+		if (matchCount(after, condition) > 0) {
+			afterOrders = without(after, afterOrders, condition);
+			after = without(after, condition);
+			changed = true;
+		}
+		return changed;
+	}
+
+	boolean isEmpty() {
+		return before.length == 0 && after.length == 0;
+	}
+
+	/**
+	 * Combines several lists of handlers into one, keeping the order in which the handlers were registered.
+	 *
+	 * @param sources The handlers to combine
+	 * @return The combined handlers
+	 */
+	static EventHandlers merge(List<EventHandlers> sources) {
+		EventHandlers result = new EventHandlers();
+		for (boolean after : new boolean[]{ false, true }) {
+			int[] positions = new int[sources.size()];
+			while (true) {
+				int next = -1;
+				long nextOrder = Long.MAX_VALUE;
+				for (int i = 0; i < positions.length; i++) {
+					long[] orders = after ? sources.get(i).afterOrders : sources.get(i).beforeOrders;
+					if (positions[i] < orders.length && orders[positions[i]] < nextOrder) {
+						next = i;
+						nextOrder = orders[positions[i]];
+					}
+				}
+				if (next == -1) {
+					break;
+				}
+				result.add(sources.get(next).get(after)[positions[next]++], nextOrder);
+			}
+		}
+		return result;
+	}
+
+	private static int insertionPoint(long[] orders, long order) {
+		int index = orders.length;
+		while (index > 0 && orders[index - 1] > order) {
+			index--;
+		}
+		return index;
+	}
+
+	private static EventHandler<?>[] insert(EventHandler<?>[] handlers, int index, EventHandler<?> handler) {
+		EventHandler<?>[] result = new EventHandler<?>[handlers.length + 1];
+		System.arraycopy(handlers, 0, result, 0, index);
+		result[index] = handler;
+		System.arraycopy(handlers, index, result, index + 1, handlers.length - index);
+		return result;
+	}
+
+	private static long[] insert(long[] orders, int index, long order) {
+		long[] result = new long[orders.length + 1];
+		System.arraycopy(orders, 0, result, 0, index);
+		result[index] = order;
+		System.arraycopy(orders, index, result, index + 1, orders.length - index);
+		return result;
+	}
+
+	private static int matchCount(EventHandler<?>[] handlers, Predicate<EventHandler<?>> condition) {
+		int count = 0;
+		for (EventHandler<?> handler : handlers) {
+			if (condition.test(handler)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static EventHandler<?>[] without(EventHandler<?>[] handlers, Predicate<EventHandler<?>> condition) {
+		EventHandler<?>[] result = new EventHandler<?>[handlers.length - matchCount(handlers, condition)];
+		int index = 0;
+		for (EventHandler<?> handler : handlers) {
+			if (!condition.test(handler)) {
+				result[index++] = handler;
+			}
+		}
+		return result;
+	}
+
+	private static long[] without(EventHandler<?>[] handlers, long[] orders, Predicate<EventHandler<?>> condition) {
+		long[] result = new long[handlers.length - matchCount(handlers, condition)];
+		int index = 0;
+		for (int i = 0; i < handlers.length; i++) {
+			if (!condition.test(handlers[i])) {
+				result[index++] = orders[i];
+			}
+		}
+		return result;
+	}
+
+}
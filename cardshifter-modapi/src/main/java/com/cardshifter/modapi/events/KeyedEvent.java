@@ -0,0 +1,15 @@
+package com.cardshifter.modapi.events;
+
+/**
+ * An event that has a key, such as the id of the name of an action.
+ * Handlers can be registered for only the events with a single key, see
+ * {@link EventExecutor#registerKeyedHandlerAfter(Object, Class, int, java.util.function.Consumer)}
+ */
+public interface KeyedEvent extends IEvent {
+
+	/**
+	 * @return The key of this event, which is zero or more
+	 */
+	int getEventKey();
+
+}
@@ -0,0 +1,9 @@
+package com.cardshifter.modapi.events;
+
+/**
+ * An event that does not change the state of the game, such as a check whether an action is allowed.
+ * Executing it does not change the state version of the game, see {@link com.cardshifter.modapi.base.ECSGame#getStateVersion()}
+ */
+public interface ReadOnlyEvent extends IEvent {
+
+}
@@ -0,0 +1,14 @@
+package com.cardshifter.modapi.events;
+
+/**
+ * An event that can tell the {@link EventExecutor} that no more handlers need to be informed about it,
+ * for example a check event that has already been denied.
+ */
+public interface StoppableEvent extends IEvent {
+
+	/**
+	 * @return True if the remaining handlers for this event should be skipped
+	 */
+	boolean isStopped();
+
+}
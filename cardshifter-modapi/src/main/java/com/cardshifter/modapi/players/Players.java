@@ -28,7 +28,7 @@ public class Players {
     }
 
     public static List<Entity> getPlayersInGame(ECSGame game) {
-        List<Entity> players = game.findEntities(e -> e.hasComponent(PlayerComponent.class));
+        List<Entity> players = new ArrayList<>(game.query(PlayerComponent.class).asList());
         players.sort(Comparator.comparingInt(pl -> pl.getComponent(PlayerComponent.class).getIndex()));
         return players;
     }
@@ -3,57 +3,66 @@ package com.cardshifter.modapi.resources;
 import java.util.Objects;
 import java.util.function.IntUnaryOperator;
 
-import com.cardshifter.modapi.base.ComponentRetriever;
-import org.apache.log4j.LogManager;
-import org.apache.log4j.Logger;
-
 import com.cardshifter.modapi.base.Entity;
 
+/**
+ * A view of one resource of an entity. The values are stored in the {@link ECSResourceMap} of the entity.
+ */
 public class ECSResourceData {
 
-	private static final Logger logger = LogManager.getLogger(ECSResourceData.class);
-	
-	private int previousGet;
-	private int current;
-	private ECSResourceStrategy strategy;
-	
-	private final Entity entity;
-	private final ECSResource resource;
+	private final ECSResourceMap map;
+	private final int index;
 	
+	/**
+	 * Creates a view of a resource of an entity, adding the resource to the entity if it does not have it already.
+	 * 
+	 * @param entity The entity, which is given an {@link ECSResourceMap} if it does not have one
+	 * @param resource The resource
+	 */
 	public ECSResourceData(Entity entity, ECSResource resource) {
-		this.entity = Objects.requireNonNull(entity, "Entity cannot be null. Make sure that ResourceMap is added to an entity.");
-		this.resource = Objects.requireNonNull(resource, "Resource cannot be null.");
-        this.strategy = ComponentRetriever.singletonOptional(entity.getGame(), ResourceModifierComponent.class);
+		this.map = ECSResourceMap.createOrGetFor(Objects.requireNonNull(entity, "Entity cannot be null."));
+		this.index = map.indexOf(Objects.requireNonNull(resource, "Resource cannot be null."));
+		map.ensure(index, resource);
+	}
+	
+	ECSResourceData(ECSResourceMap map, int index) {
+		this.map = Objects.requireNonNull(map, "Resource map cannot be null.");
+		this.index = index;
 	}
 	
+	/**
+	 * Get the value of the resource, after applying the strategy if there is one.
+	 * Reading a value does not execute any events.
+	 * 
+	 * @return The value of the resource
+	 */
 	public int get() {
-		int result = strategy == null ? current : strategy.getResource(entity, resource, current);
-		if (previousGet != result) {
-			// Execute an event for UIs to update their values, or for other entities to react
-			entity.getGame().getEvents().executePostEvent(new ResourceViewUpdate(entity, resource, result));
+		return map.value(index);
+	}
+	
+	/**
+	 * Executes a {@link ResourceViewUpdate} if the value has changed since the last view update,
+	 * for UIs to update their values, or for other entities to react.
+	 */
+	public void refreshView() {
+		int result = get();
+		if (map.viewed(index) != result) {
+			map.setViewed(index, result);
+			map.entity().getGame().getEvents().executePostEvent(new ResourceViewUpdate(map.entity(), getResource(), result));
 		}
-		previousGet = result;
-		return result;
 	}
 	
 	public void set(int value) {
 		// Execute change event (for taking damage, gaining life, etc...).
-		if (this.current != value) {
-			entity.getGame().executeEvent(new ResourceValueChange(entity, resource, get(), current, value),
-					() -> {
-						this.current = value;
-						logger.debug("Modified " + resource + " for " + entity + " to " + value);
-					});
-            get(); // do a ResourceViewUpdate check
-		}
+		map.setValue(index, value);
 	}
 	
 	public void change(int value) {
-		set(current + value);
+		set(map.current(index) + value);
 	}
 
 	public void setStrategy(ECSResourceStrategy strategy) {
-		this.strategy = strategy;
+		map.setStrategy(index, strategy);
 	}
 
 	public boolean has(int want) {
@@ -62,23 +71,32 @@ public class ECSResourceData {
 	
 	@Override
 	public String toString() {
-		return String.valueOf(current);
+		return String.valueOf(map.current(index));
 	}
 
 	public ECSResource getResource() {
-		return this.resource;
+		return map.resource(index);
 	}
 
-	ECSResourceData copy(Entity copyTo) {
-		ECSResourceData copy = new ECSResourceData(copyTo, resource);
-		copy.current = this.current;
-		copy.previousGet = this.previousGet;
-		copy.strategy = this.strategy;
-		return copy;
+	@Override
+	public int hashCode() {
+		return 31 * System.identityHashCode(map) + index;
 	}
-	
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ECSResourceData)) {
+			return false;
+		}
+		ECSResourceData other = (ECSResourceData) obj;
+		return map == other.map && index == other.index;
+	}
+
     public void changeBy(int value, IntUnaryOperator fix) {
-        int newValue = current + value;
+        int newValue = map.current(index) + value;
         set(fix.applyAsInt(newValue));
     }
 
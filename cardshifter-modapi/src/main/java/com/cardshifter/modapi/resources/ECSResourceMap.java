@@ -1,34 +1,127 @@
 package com.cardshifter.modapi.resources;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.Stream;
 
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
 import com.cardshifter.modapi.base.Component;
+import com.cardshifter.modapi.base.ComponentRetriever;
 import com.cardshifter.modapi.base.CopyableComponent;
+import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
 
+/**
+ * The resources of an entity. The values are stored in arrays that only have room for the resources of this entity,
+ * ordered by the ordinal of the resource in the {@link ResourceRegistry} of the game.
+ * {@link ECSResourceData} objects are only views of a single resource.
+ */
 public class ECSResourceMap extends Component implements CopyableComponent {
 
-	private final Map<ECSResource, ECSResourceData> map = new HashMap<>();
+	private static final Logger logger = LogManager.getLogger(ECSResourceMap.class);
+	private static final int[] NO_ORDINALS = new int[0];
+	private static final ECSResource[] NO_RESOURCES = new ECSResource[0];
+	private static final int[] NO_VALUES = new int[0];
+
+	/**
+	 * The ordinals of the resources that this entity has, in increasing order.
+	 * The other arrays are indexed by the position of the ordinal in this array.
+	 */
+	private int[] ordinals = NO_ORDINALS;
+	private ECSResource[] resources = NO_RESOURCES;
+	private int[] current = NO_VALUES;
+
+	/**
+	 * The values that were last sent in a {@link ResourceViewUpdate}
+	 */
+	private int[] viewed = NO_VALUES;
+
+	/**
+	 * The strategies of the resources, created when the first resource with a strategy is added
+	 */
+	private ECSResourceStrategy[] strategies;
+	private int[] cachedValues;
+	/**
+	 * The strategy versions that the cached values were computed for, see {@link ECSResourceStrategy#getVersion}. The version is written after the value,
+	 * so that the values can be read by several threads at once while the game does not change, see {@link ECSGame#readUnlocked}
+	 */
+	private AtomicLongArray cachedVersions;
 
 	private ECSResourceMap() {
 	}
 
 	public ECSResourceMap set(ECSResource res, int value) {
-		ECSResourceData data = getResource(res);
-		data.set(value);
+		int index = indexOf(res);
+		ensure(index, res);
+		setValue(index, value);
 		return this;
 	}
 
     public Optional<ECSResourceData> get(ECSResource res) {
-        return Optional.ofNullable(map.get(res));
+        int index = indexOf(res);
+        return has(index) ? Optional.of(new ECSResourceData(this, index)) : Optional.empty();
     }
 
     public ECSResourceData getResource(ECSResource res) {
-		map.computeIfAbsent(res, r -> new ECSResourceData(getEntity(), r));
-		return map.get(res);
+		return data(indexOf(res), res);
+	}
+
+	/**
+	 * @param res A resource, which this entity does not need to have
+	 * @return The index of the resource in the resource maps of this game, for the methods that take an index
+	 */
+	public int indexOf(ECSResource res) {
+		return registry().ordinal(res);
+	}
+
+	/**
+	 * @param index The index of a resource, see {@link #indexOf(ECSResource)}
+	 * @return Whether or not this entity has the resource
+	 */
+	public boolean has(int index) {
+		return slot(index) >= 0;
+	}
+
+	/**
+	 * @param index The index of a resource, see {@link #indexOf(ECSResource)}
+	 * @return The value of the resource after applying its strategy, or 0 if this entity does not have the resource
+	 */
+	public int getValue(int index) {
+		int slot = slot(index);
+		return slot >= 0 ? valueAt(slot) : 0;
+	}
+
+	/**
+	 * Set the value of a resource that this entity has. Objects are only created when the value changes,
+	 * for the {@link ResourceValueChange} event and the view update.
+	 *
+	 * @param index The index of a resource, see {@link #indexOf(ECSResource)}
+	 * @param value The new value
+	 * @throws IllegalArgumentException If this entity does not have the resource
+	 */
+	public void setValue(int index, int value) {
+		int slot = slot(index);
+		if (slot < 0) {
+			throw new IllegalArgumentException(getEntity() + " does not have a resource with index " + index);
+		}
+		int previous = current[slot];
+		if (previous == value) {
+			return;
+		}
+		Entity entity = getEntity();
+		ECSResource resource = resources[slot];
+		entity.getGame().executeEvent(new ResourceValueChange(entity, resource, valueAt(slot), previous, value),
+				() -> {
+					setCurrent(index, value);
+					logger.debug("Modified " + resource + " for " + entity + " to " + value);
+				});
+		entity.getGame().getResourceViews().changed(new ECSResourceData(this, index));
 	}
 
 	public static ECSResourceMap createFor(Entity entity) {
@@ -36,7 +129,7 @@ public class ECSResourceMap extends Component implements CopyableComponent {
 		entity.addComponent(res);
 		return res;
 	}
-	
+
 	public static ECSResourceMap createOrGetFor(Entity entity) {
 		ECSResourceMap res = entity.getComponent(ECSResourceMap.class);
 		if (res == null) {
@@ -48,21 +141,235 @@ public class ECSResourceMap extends Component implements CopyableComponent {
 
 	@Override
 	public String toString() {
-		return map.toString();
+		StringJoiner result = new StringJoiner(", ", "{", "}");
+		for (int i = 0; i < ordinals.length; i++) {
+			result.add(resources[i] + "=" + current[i]);
+		}
+		return result.toString();
 	}
 
 	public Stream<ECSResourceData> getResources() {
-		return map.values().stream();
+		return Arrays.stream(ordinals.clone()).mapToObj(ordinal -> new ECSResourceData(this, ordinal));
 	}
 
 	@Override
 	public Component copy(Entity copyTo) {
 		ECSResourceMap copy = new ECSResourceMap();
-		for (ECSResourceData data : map.values()) {
-			ECSResourceData copyData = data.copy(copyTo);
-			copy.map.put(data.getResource(), copyData);
+		// the game that is copied to may use another registry, where the resources have other indices
+		ResourceRegistry registry = copyTo.getGame().getResourceRegistry();
+		// resources using the modifiers of this game should use the modifiers of the game that is copied to
+		ECSResourceStrategy modifiers = modifiers(getEntity().getGame());
+		ECSResourceStrategy copyModifiers = modifiers(copyTo.getGame());
+		for (int i = 0; i < ordinals.length; i++) {
+			int index = registry.ordinal(resources[i]);
+			int slot = copy.insert(-copy.slot(index) - 1, index, resources[i]);
+			copy.current[slot] = current[i];
+			copy.viewed[slot] = viewed[i];
+			ECSResourceStrategy strategy = strategies == null ? null : strategies[i];
+			copy.setStrategyAt(slot, strategy == modifiers ? copyModifiers : strategy);
 		}
 		return copy;
 	}
-	
+
+	private static ECSResourceStrategy modifiers(ECSGame game) {
+		return ComponentRetriever.singletonOptional(game, ResourceModifierComponent.class);
+	}
+
+	/**
+	 * @param ordinal The ordinal of a resource
+	 * @return The position of the resource in the arrays, or a negative number if this entity does not have the resource
+	 */
+	private int slot(int ordinal) {
+		return Arrays.binarySearch(ordinals, ordinal);
+	}
+
+	private int requiredSlot(int ordinal) {
+		int slot = slot(ordinal);
+		if (slot < 0) {
+			throw new IllegalArgumentException(getEntity() + " does not have a resource with index " + ordinal);
+		}
+		return slot;
+	}
+
+	ResourceRegistry registry() {
+		return getEntity().getGame().getResourceRegistry();
+	}
+
+	/**
+	 * @param index The ordinal of the resource
+	 * @param resource The resource, which is added to this entity if it does not have it already
+	 * @return A view of the resource
+	 */
+	ECSResourceData data(int index, ECSResource resource) {
+		ensure(index, resource);
+		return new ECSResourceData(this, index);
+	}
+
+	/**
+	 * @param index The ordinal of the resource
+	 * @param resource The resource, which is added to this entity if it does not have it already
+	 */
+	void ensure(int index, ECSResource resource) {
+		int slot = slot(index);
+		if (slot < 0) {
+			slot = insert(-slot - 1, index, resource);
+			setStrategyAt(slot, modifiers(getEntity().getGame()));
+		}
+	}
+
+	/**
+	 * Makes room for a resource, keeping the ordinals in order
+	 *
+	 * @return The slot of the resource
+	 */
+	private int insert(int slot, int ordinal, ECSResource resource) {
+		int length = ordinals.length;
+		ordinals = insert(ordinals, slot, ordinal);
+		resources = insert(resources, slot, resource);
+		current = insert(current, slot, 0);
+		viewed = insert(viewed, slot, 0);
+		if (strategies != null) {
+			strategies = insert(strategies, slot, null);
+			cachedValues = insert(cachedValues, slot, 0);
+			AtomicLongArray versions = new AtomicLongArray(length + 1);
+			for (int i = 0; i < length; i++) {
+				versions.set(i < slot ? i : i + 1, cachedVersions.get(i));
+			}
+			versions.set(slot, -1);
+			cachedVersions = versions;
+		}
+		return slot;
+	}
+
+	private static int[] insert(int[] array, int index, int value) {
+		int[] result = new int[array.length + 1];
+		System.arraycopy(array, 0, result, 0, index);
+		result[index] = value;
+		System.arraycopy(array, index, result, index + 1, array.length - index);
+		return result;
+	}
+
+	private static <T> T[] insert(T[] array, int index, T value) {
+		T[] result = Arrays.copyOf(array, array.length + 1);
+		System.arraycopy(array, index, result, index + 1, array.length - index);
+		result[index] = value;
+		return result;
+	}
+
+	Entity entity() {
+		return getEntity();
+	}
+
+	ECSResource resource(int index) {
+		return resources[requiredSlot(index)];
+	}
+
+	int current(int index) {
+		return current[requiredSlot(index)];
+	}
+
+	void setCurrent(int index, int value) {
+		int slot = requiredSlot(index);
+		current[slot] = value;
+		if (cachedVersions != null) {
+			cachedVersions.set(slot, -1);
+		}
+	}
+
+	/**
+	 * Compute the values given by strategies again on the next read
+	 */
+	void invalidateCachedValues() {
+		if (cachedVersions != null) {
+			for (int i = 0; i < cachedVersions.length(); i++) {
+				cachedVersions.set(i, -1);
+			}
+		}
+	}
+
+	int viewed(int index) {
+		return viewed[requiredSlot(index)];
+	}
+
+	void setViewed(int index, int value) {
+		viewed[requiredSlot(index)] = value;
+	}
+
+	void setStrategy(int index, ECSResourceStrategy strategy) {
+		setStrategyAt(requiredSlot(index), strategy);
+	}
+
+	private void setStrategyAt(int slot, ECSResourceStrategy strategy) {
+		if (strategies == null) {
+			if (strategy == null) {
+				return;
+			}
+			int length = ordinals.length;
+			strategies = new ECSResourceStrategy[length];
+			cachedValues = new int[length];
+			cachedVersions = new AtomicLongArray(length);
+		}
+		strategies[slot] = strategy;
+		cachedVersions.set(slot, -1);
+	}
+
+	/**
+	 * The value of a resource, given by its strategy if it has one.
+	 * Values given by strategies are only recomputed when the state of the game has changed.
+	 *
+	 * @param index The ordinal of the resource
+	 * @return The value of the resource
+	 */
+	int value(int index) {
+		return valueAt(requiredSlot(index));
+	}
+
+	/**
+	 * The value of a resource for an entity that reads this map without copying it, see {@link Entity#read}.
+	 * Resources that use the modifiers of the game of this map use the modifiers of the game of the entity instead,
+	 * as they would in a copy. Values for other entities are not cached.
+	 *
+	 * @param entity The entity to get the value for
+	 * @param index The ordinal of the resource
+	 * @return The value of the resource
+	 */
+	int valueFor(Entity entity, int index) {
+		if (entity == getEntity()) {
+			return value(index);
+		}
+		int slot = requiredSlot(index);
+		ECSResourceStrategy strategy = strategies == null ? null : strategies[slot];
+		if (strategy == modifiers(getEntity().getGame())) {
+			strategy = modifiers(entity.getGame());
+		}
+		return strategy == null ? current[slot] : strategy.getResource(entity, resources[slot], current[slot]);
+	}
+
+	/**
+	 * @param entity The entity to get the values for, see {@link #valueFor(Entity, int)}
+	 * @return The values of all the resources, by the name of the resource
+	 */
+	Map<String, Integer> valuesFor(Entity entity) {
+		Map<String, Integer> result = new HashMap<>();
+		for (int i = 0; i < ordinals.length; i++) {
+			result.put(resources[i].toString(), valueFor(entity, ordinals[i]));
+		}
+		return result;
+	}
+
+	private int valueAt(int slot) {
+		ECSResourceStrategy strategy = strategies == null ? null : strategies[slot];
+		if (strategy == null) {
+			return current[slot];
+		}
+		long version = strategy.getVersion(getEntity().getGame());
+		if (cachedVersions.get(slot) != version) {
+			int value = strategy.getResource(getEntity(), resources[slot], current[slot]);
+			cachedValues[slot] = value;
+			cachedVersions.lazySet(slot, version);
+			return value;
+		}
+		return cachedValues[slot];
+	}
+
 }
@@ -1,8 +1,19 @@
 package com.cardshifter.modapi.resources;
 
+import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
 
 @FunctionalInterface
 public interface ECSResourceStrategy {
 	int getResource(Entity entity, ECSResource resource, int actualValue);
+
+	/**
+	 * Values computed by the strategy are kept until this version changes, or until the actual value changes.
+	 * 
+	 * @param game The game of the entity
+	 * @return The version of the inputs of this strategy, by default the state version of the game
+	 */
+	default long getVersion(ECSGame game) {
+		return game.getStateVersion();
+	}
 }
@@ -3,6 +3,10 @@ package com.cardshifter.modapi.resources;
 import com.cardshifter.modapi.base.Entity;
 import net.zomis.cardshifter.ecs.effects.TargetFilter;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 
@@ -13,14 +17,26 @@ public class EntityModifier implements ECSResourceStrategy {
     private final Predicate<Entity> active;
     private final TargetFilter appliesTo;
     private final ECSResourceBiStrategy amount;
+    private final ModifierScope scope;
+    private final Set<ECSResource> inputs = new HashSet<>();
+    private boolean inputsDeclared;
 
     public EntityModifier(Entity entity, int priority, Predicate<Entity> active,
         TargetFilter appliesTo, ECSResourceBiStrategy amount) {
+        this(entity, priority, active, appliesTo, amount, ModifierScope.ANY);
+    }
+
+    /**
+     * @param scope The kind of entities that the modifier can apply to, which should not be wider than what appliesTo accepts
+     */
+    public EntityModifier(Entity entity, int priority, Predicate<Entity> active,
+        TargetFilter appliesTo, ECSResourceBiStrategy amount, ModifierScope scope) {
         this.source = entity;
         this.priority = priority;
         this.active = active;
         this.appliesTo = appliesTo;
         this.amount = amount;
+        this.scope = scope;
     }
 
     public int getPriority() {
@@ -36,6 +52,40 @@ public class EntityModifier implements ECSResourceStrategy {
         return amount.getResource(source, entity, resource, actualValue);
     }
 
+    public ModifierScope getScope() {
+        return scope;
+    }
+
+    /**
+     * Declare that this modifier only reads the given resources, of any entity, besides zones, owners, phases and
+     * whether the source is removed. This is optional: modified values are computed again whenever the state of the game
+     * changes, unless all modifiers of the game have declared their inputs. Then they are only computed again when
+     * one of the declared inputs changes. Call this before the modifier is added.
+     *
+     * @param resources The resources that the modifier depends on, which may be none
+     * @return This modifier
+     */
+    public EntityModifier dependsOn(ECSResource... resources) {
+        inputs.addAll(Arrays.asList(resources));
+        inputsDeclared = true;
+        return this;
+    }
+
+    /**
+     * @return True if the inputs of this modifier have been declared with {@link #dependsOn(ECSResource...)}
+     */
+    public boolean hasDeclaredInputs() {
+        return inputsDeclared;
+    }
+
+    public Set<ECSResource> getInputs() {
+        return Collections.unmodifiableSet(inputs);
+    }
+
+    public Entity getSource() {
+        return source;
+    }
+
     public boolean isActive() {
         return active.test(source);
     }
@@ -0,0 +1,110 @@
+package com.cardshifter.modapi.resources;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.cardshifter.modapi.base.CreatureTypeComponent;
+import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.cards.CardComponent;
+import com.cardshifter.modapi.cards.ZoneComponent;
+
+/**
+ * The modifiers of a single resource, indexed by the zone and creature type that they are restricted to.
+ * Modifiers without a restriction are stored with the key null.
+ */
+final class ModifierIndex {
+
+	private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingInt(e -> e.modifier.getPriority())
+			.thenComparingLong(e -> e.order);
+
+	private static final class Entry {
+		private final EntityModifier modifier;
+		private final long order;
+
+		public Entry(EntityModifier modifier, long order) {
+			this.modifier = modifier;
+			this.order = order;
+		}
+	}
+
+	private final Map<String, Map<String, List<Entry>>> byZoneAndType = new HashMap<>();
+
+	/**
+	 * @param modifier The modifier to add
+	 * @param order The order in which the modifier was added, used for modifiers with the same priority
+	 */
+	void add(EntityModifier modifier, long order) {
+		Entry entry = new Entry(modifier, order);
+		ModifierScope scope = modifier.getScope();
+		for (String zone : keys(scope.getZones())) {
+			Map<String, List<Entry>> byType = byZoneAndType.computeIfAbsent(zone, z -> new HashMap<>());
+			for (String type : keys(scope.getCreatureTypes())) {
+				List<Entry> entries = byType.computeIfAbsent(type, t -> new ArrayList<>());
+				int index = Collections.binarySearch(entries, entry, ORDER);
+				entries.add(-index - 1, entry);
+			}
+		}
+	}
+
+	/**
+	 * @param entity The entity to get modifiers for
+	 * @return The modifiers that can apply to the entity, ordered by priority
+	 */
+	List<EntityModifier> candidatesFor(Entity entity) {
+		List<List<Entry>> lists = new ArrayList<>(4);
+		CardComponent card = entity.getComponent(CardComponent.class);
+		ZoneComponent zone = card == null ? null : card.getCurrentZone();
+		CreatureTypeComponent types = entity.getComponent(CreatureTypeComponent.class);
+		addLists(lists, byZoneAndType.get(null), types);
+		if (zone != null) {
+			addLists(lists, byZoneAndType.get(zone.getName()), types);
+		}
+
+		List<EntityModifier> result = new ArrayList<>();
+		if (lists.size() == 1) {
+			for (Entry entry : lists.get(0)) {
+				result.add(entry.modifier);
+			}
+			return result;
+		}
+		List<Entry> entries = new ArrayList<>();
+		lists.forEach(entries::addAll);
+		entries.sort(ORDER);
+		Map<EntityModifier, Boolean> added = new IdentityHashMap<>();
+		for (Entry entry : entries) {
+			if (added.put(entry.modifier, Boolean.TRUE) == null) {
+				result.add(entry.modifier);
+			}
+		}
+		return result;
+	}
+
+	private static void addLists(List<List<Entry>> lists, Map<String, List<Entry>> byType, CreatureTypeComponent types) {
+		if (byType == null) {
+			return;
+		}
+		addList(lists, byType.get(null));
+		if (types != null) {
+			for (String type : types.getCreatureTypes()) {
+				addList(lists, byType.get(type));
+			}
+		}
+	}
+
+	private static void addList(List<List<Entry>> lists, List<Entry> list) {
+		if (list != null && !list.isEmpty()) {
+			lists.add(list);
+		}
+	}
+
+	private static Set<String> keys(Set<String> restriction) {
+		return restriction == null ? Collections.singleton(null) : restriction;
+	}
+
+}
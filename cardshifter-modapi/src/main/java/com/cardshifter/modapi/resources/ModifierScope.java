@@ -0,0 +1,50 @@
+package com.cardshifter.modapi.resources;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The kind of entities that an {@link EntityModifier} can apply to, used to only consider the modifiers
+ * that can apply to an entity. The modifier's filter is still checked for the entities within the scope.
+ */
+public final class ModifierScope {
+
+	/**
+	 * A scope that does not exclude any entities
+	 */
+	public static final ModifierScope ANY = new ModifierScope(null, null);
+
+	private final Set<String> zones;
+	private final Set<String> creatureTypes;
+
+	/**
+	 * @param zones The names of the zones that a card needs to be on, or null for no restriction
+	 * @param creatureTypes The creature types of which an entity needs to have at least one, or null for no restriction
+	 */
+	public ModifierScope(Collection<String> zones, Collection<String> creatureTypes) {
+		this.zones = zones == null ? null : Collections.unmodifiableSet(new LinkedHashSet<>(zones));
+		this.creatureTypes = creatureTypes == null ? null : Collections.unmodifiableSet(new LinkedHashSet<>(creatureTypes));
+	}
+
+	/**
+	 * @return The names of the zones that a card needs to be on, or null for no restriction
+	 */
+	public Set<String> getZones() {
+		return zones;
+	}
+
+	/**
+	 * @return The creature types of which an entity needs to have at least one, or null for no restriction
+	 */
+	public Set<String> getCreatureTypes() {
+		return creatureTypes;
+	}
+
+	@Override
+	public String toString() {
+		return "ModifierScope [zones=" + zones + ", creatureTypes=" + creatureTypes + "]";
+	}
+
+}
@@ -1,20 +1,113 @@
 package com.cardshifter.modapi.resources;
 
 import com.cardshifter.modapi.base.Component;
+import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.Entity;
+import com.cardshifter.modapi.cards.ZoneChangeEvent;
+import com.cardshifter.modapi.events.EntityRemoveEvent;
+import com.cardshifter.modapi.phase.PhaseChangeEvent;
 
 import java.util.*;
 import java.util.stream.Stream;
 
+/**
+ * The modifiers of all resources in a game. Modified values are computed again whenever the state of the game changes.
+ * <p>
+ * When all modifiers have declared their inputs with {@link EntityModifier#dependsOn(ECSResource...)}, modified values are
+ * only computed again when those inputs change: when a modifier is added, when the phase changes, when the source of a
+ * modifier moves or is removed, or when a declared resource changes. When any other card moves, only the values of that card
+ * are computed again. The components that the modifiers check, such as creature types, are then expected not to change
+ * once an entity has been created.
+ */
 public class ResourceModifierComponent extends Component implements ECSResourceStrategy {
 
-    private final Map<ECSResource, List<EntityModifier>> strategies = new HashMap<>();
+    private final Map<ECSResource, ModifierIndex> strategies = new HashMap<>();
+    private final Set<Entity> sources = new HashSet<>();
+    private final Set<ECSResource> inputs = new HashSet<>();
+    private long modifierCount;
+    /**
+     * The number of modifiers that have not declared their inputs
+     */
+    private int undeclared;
+    private long version;
+    private boolean listening;
+
+    /**
+     * The entities whose modified values may have changed since the last recount, or null if all of them may have changed
+     */
+    private Set<Entity> changed = new LinkedHashSet<>();
 
     public void addModifier(ECSResource resource, EntityModifier modifier) {
-        this.strategies.putIfAbsent(resource, new LinkedList<>());
-        List<EntityModifier> list = this.strategies.get(resource);
-        list.add(modifier);
-        list.sort(Comparator.comparingInt(em -> em.getPriority()));
+        this.strategies.computeIfAbsent(resource, r -> new ModifierIndex()).add(modifier, modifierCount++);
+        sources.add(modifier.getSource());
+        inputs.addAll(modifier.getInputs());
+        if (!modifier.hasDeclaredInputs()) {
+            undeclared++;
+        }
+        if (getEntity() != null) {
+            listen(getEntity().getGame());
+        }
+        inputsChanged();
+    }
+
+    private void listen(ECSGame game) {
+        if (listening) {
+            return;
+        }
+        listening = true;
+        game.getEvents().registerInvalidationHandler(this, PhaseChangeEvent.class, event -> inputsChanged());
+        game.getEvents().registerInvalidationHandler(this, ZoneChangeEvent.class, event -> entityChanged(event.getCard()));
+        game.getEvents().registerInvalidationHandler(this, EntityRemoveEvent.class, event -> {
+            if (sources.contains(event.getEntity())) {
+                inputsChanged();
+            }
+        });
+        game.getEvents().registerInvalidationHandler(this, ResourceValueChange.class, event -> {
+            if (inputs.contains(event.getResource())) {
+                inputsChanged();
+            }
+        });
+    }
+
+    /**
+     * Marks that the modified values of all entities may have changed
+     */
+    public void inputsChanged() {
+        version++;
+        changed = null;
+    }
+
+    private void entityChanged(Entity entity) {
+        if (sources.contains(entity)) {
+            inputsChanged();
+            return;
+        }
+        ECSResourceMap map = entity.getComponent(ECSResourceMap.class);
+        if (map != null) {
+            map.invalidateCachedValues();
+        }
+        if (changed != null) {
+            changed.add(entity);
+        }
+    }
+
+    /**
+     * Get the entities whose modified values may have changed since this method was last called
+     *
+     * @return The changed entities, or null if all entities may have changed
+     */
+    Set<Entity> takeChanged() {
+        Set<Entity> result = undeclared > 0 ? null : changed;
+        changed = new LinkedHashSet<>();
+        return result;
+    }
+
+    @Override
+    public long getVersion(ECSGame game) {
+        if (undeclared > 0) {
+            return version + game.getStateVersion();
+        }
+        return version;
     }
 
     public Stream<ECSResource> getModifiedResources() {
@@ -23,13 +116,13 @@ public class ResourceModifierComponent extends Component implements ECSResourceS
 
     @Override
     public int getResource(Entity entity, ECSResource resource, int actualValue) {
-        Iterable<EntityModifier> modifiers = strategies.get(resource);
+        ModifierIndex modifiers = strategies.get(resource);
         if (modifiers == null) {
             return actualValue;
         }
 
         int value = actualValue;
-        for (EntityModifier modifier : modifiers) {
+        for (EntityModifier modifier : modifiers.candidatesFor(entity)) {
             if (modifier.isActive() && modifier.appliesTo(entity)) {
                 value = modifier.getResource(entity, resource, value);
             }
@@ -39,7 +132,7 @@ public class ResourceModifierComponent extends Component implements ECSResourceS
 
     @Override
     public String toString() {
-        return getClass().getSimpleName() + ": " + strategies;
+        return getClass().getSimpleName() + ": " + strategies.keySet();
     }
 
     public int getModifiedResourcesCount() {
@@ -6,13 +6,22 @@ import com.cardshifter.modapi.base.ECSGame;
 import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
 
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
 
 /**
  * A System to recount resources if required after an action has been performed.
+ * Resources of the entities that modifiers may have changed are refreshed at the end of the action,
+ * see {@link ResourceModifierComponent} for what is considered a change.
  */
 public class ResourceRecountSystem implements ECSSystem {
 
+    private static final Logger logger = LogManager.getLogger(ResourceRecountSystem.class);
+
     private ComponentRetriever<ResourceModifierComponent> modifier =
         ComponentRetriever.singleton(ResourceModifierComponent.class);
 
@@ -27,14 +36,27 @@ public class ResourceRecountSystem implements ECSSystem {
         if (count == 0) {
             return;
         }
+        ECSGame game = event.getEntity().getGame();
+        Set<Entity> entities = mod.takeChanged();
+        if (entities == null) {
+            entities = game.getEntitiesWithComponent(ECSResourceMap.class);
+        }
+        if (entities.isEmpty()) {
+            return;
+        }
 
-        Set<Entity> entities = event.getEntity().getGame()
-            .getEntitiesWithComponent(ECSResourceMap.class);
-        entities.stream()
-            .map(e -> e.getComponent(ECSResourceMap.class))
-            .forEach(e -> mod.getModifiedResources()
-                .forEach(res -> e.get(res).ifPresent(resData -> resData.get())));
-        System.out.println("Recounted " + count + " resources for " + entities.size() + " entities.");
+        List<ECSResource> resources = mod.getModifiedResources().collect(Collectors.toList());
+        ResourceViews views = game.getResourceViews();
+        for (Entity entity : entities.toArray(new Entity[entities.size()])) {
+            ECSResourceMap map = entity.getComponent(ECSResourceMap.class);
+            if (map == null) {
+                continue;
+            }
+            for (ECSResource resource : resources) {
+                map.get(resource).ifPresent(views::changed);
+            }
+        }
+        logger.debug("Recounted " + count + " resources for " + entities.size() + " entities.");
     }
 
 }
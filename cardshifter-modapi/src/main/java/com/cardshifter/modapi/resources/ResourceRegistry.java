@@ -0,0 +1,31 @@
+package com.cardshifter.modapi.resources;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.cardshifter.modapi.base.ECSGame;
+
+/**
+ * Assigns a dense ordinal to each resource, which is used as the index of the resource in {@link ECSResourceMap}.
+ * Each game has its own registry, unless the games of a mod share one, see {@link ECSGame#setResourceRegistry(ResourceRegistry)}.
+ * Resources that are equal share the same ordinal.
+ */
+public final class ResourceRegistry {
+
+	private final Map<ECSResource, Integer> ordinals = new ConcurrentHashMap<>();
+	private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+	/**
+	 * @param resource The resource to look up, which is registered if it has not been seen before
+	 * @return The ordinal of the resource
+	 */
+	public int ordinal(ECSResource resource) {
+		Integer ordinal = ordinals.get(resource);
+		if (ordinal != null) {
+			return ordinal;
+		}
+		return ordinals.computeIfAbsent(resource, r -> nextOrdinal.getAndIncrement());
+	}
+
+}
@@ -1,14 +1,27 @@
 package com.cardshifter.modapi.resources;
 
 import java.util.Objects;
-import java.util.Optional;
 
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.Entity;
 
 public class ResourceRetriever {
 
+	/**
+	 * The index of the resource in the registry that it was last looked up in
+	 */
+	private static final class Index {
+		private final ResourceRegistry registry;
+		private final int index;
+
+		private Index(ResourceRegistry registry, int index) {
+			this.registry = registry;
+			this.index = index;
+		}
+	}
+
 	private final ECSResource resource;
+	private Index index;
 
 	ResourceRetriever(ECSResource resource) {
 		this.resource = resource;
@@ -31,18 +44,36 @@ public class ResourceRetriever {
 		return Objects.requireNonNull(map, entity + " does not have a resource component: " + entity.getSuperComponents(Component.class));
 	}
 	
+	/**
+	 * @param map The resource map to find the index of the resource in
+	 * @return The index of the resource, which is looked up again only when the map uses another registry than the last one
+	 */
+	private int index(ECSResourceMap map) {
+		ResourceRegistry registry = map.registry();
+		Index cached = index;
+		if (cached == null || cached.registry != registry) {
+			cached = new Index(registry, registry.ordinal(resource));
+			index = cached;
+		}
+		return cached.index;
+	}
+
 	public boolean has(Entity entity) {
 		Objects.requireNonNull(entity, "Cannot retrieve resource map for null entity");
-		ECSResourceMap map = entity.getComponent(ECSResourceMap.class);
-		return map != null && map.get(resource).isPresent();
+		Boolean has = entity.read(ECSResourceMap.class, map -> map.has(index(map)));
+		return has != null && has;
 	}
 
 	public ECSResourceData resFor(Entity entity) {
-		return resMap(entity).getResource(resource);
+		ECSResourceMap map = resMap(entity);
+		return map.data(index(map), resource);
 	}
 
 	public void set(Entity entity, int value) {
-		ECSResourceMap.createOrGetFor(entity).set(resource, value);
+		ECSResourceMap map = ECSResourceMap.createOrGetFor(entity);
+		int index = index(map);
+		map.ensure(index, resource);
+		map.setValue(index, value);
 	}
 
 	public ECSResource getResource() {
@@ -51,12 +82,19 @@ public class ResourceRetriever {
 
 	public int getOrDefault(Entity entity, int defaultValue) {
 		Objects.requireNonNull(entity, "Cannot retrieve resource map for null entity");
+		if (entity.isLazy()) {
+			Integer value = entity.read(ECSResourceMap.class, map -> {
+				int index = index(map);
+				return map.has(index) ? map.valueFor(entity, index) : null;
+			});
+			return value != null ? value : defaultValue;
+		}
 		ECSResourceMap map = entity.getComponent(ECSResourceMap.class);
 		if (map == null) {
 			return defaultValue;
 		}
-		Optional<ECSResourceData> resData = map.get(resource);
-		return !resData.isPresent() ? defaultValue : resData.get().get();
+		int index = index(map);
+		return map.has(index) ? map.value(index) : defaultValue;
 	}
 	
 }
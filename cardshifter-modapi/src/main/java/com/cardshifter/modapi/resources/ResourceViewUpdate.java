@@ -1,9 +1,9 @@
 package com.cardshifter.modapi.resources;
 
 import com.cardshifter.modapi.base.Entity;
-import com.cardshifter.modapi.events.IEvent;
+import com.cardshifter.modapi.events.ReadOnlyEvent;
 
-public class ResourceViewUpdate implements IEvent {
+public class ResourceViewUpdate implements ReadOnlyEvent {
 
 	private final Entity entity;
 	private final ECSResource resource;
@@ -0,0 +1,69 @@
+package com.cardshifter.modapi.resources;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps track of the resource values that may have changed, so that one {@link ResourceViewUpdate}
+ * is executed for each changed value at the end of an action instead of whenever a value is read.
+ * Outside of actions, changed values are refreshed immediately.
+ */
+public final class ResourceViews {
+
+	private final Set<ECSResourceData> changed = new LinkedHashSet<>();
+	private int actionDepth;
+
+	/**
+	 * Marks a resource value as possibly changed.
+	 * 
+	 * @param data The resource data that may have a new value
+	 */
+	public void changed(ECSResourceData data) {
+		if (actionDepth == 0) {
+			data.refreshView();
+		}
+		else {
+			changed.add(data);
+		}
+	}
+
+	/**
+	 * Called when an action starts being performed. Actions can be nested.
+	 */
+	public void beginAction() {
+		actionDepth++;
+	}
+
+	/**
+	 * Called when an action has been performed. When the outermost action ends, the changed values are refreshed.
+	 */
+	public void endAction() {
+		actionDepth--;
+		if (actionDepth == 0) {
+			refresh();
+		}
+	}
+
+	/**
+	 * Called when performing an action has failed. The values changed so far are not refreshed,
+	 * as they may belong to a partially performed action. They are refreshed when the next action ends,
+	 * or when {@link #refresh()} is called.
+	 */
+	public void abortAction() {
+		actionDepth--;
+	}
+
+	/**
+	 * Execute a view update for each resource value that has changed since it was last refreshed.
+	 */
+	public void refresh() {
+		while (!changed.isEmpty()) {
+			List<ECSResourceData> refreshing = new ArrayList<>(changed);
+			changed.clear();
+			refreshing.forEach(ECSResourceData::refreshView);
+		}
+	}
+
+}
@@ -19,9 +19,9 @@ public final class Resources {
 	}
 
 	public static Map<String, Integer> map(Entity playerFor) {
-		HashMap<String, Integer> result = new HashMap<>();
-		processResources(playerFor, data -> result.put(data.getResource().toString(), data.get()));
-		return result;
+		// lazy cards are read without copying their resources
+		Map<String, Integer> result = playerFor.read(ECSResourceMap.class, map -> map.valuesFor(playerFor));
+		return result != null ? result : new HashMap<>();
 	}
 
 	public static ResourceRetriever retriever(ECSResource resource) {
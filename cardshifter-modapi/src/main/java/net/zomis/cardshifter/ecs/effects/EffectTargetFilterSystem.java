@@ -1,5 +1,7 @@
 package net.zomis.cardshifter.ecs.effects;
 
+import com.cardshifter.modapi.actions.ECSAction;
+import com.cardshifter.modapi.actions.TargetDomain;
 import com.cardshifter.modapi.actions.TargetableCheckEvent;
 import com.cardshifter.modapi.actions.attack.SpecificActionTargetSystem;
 import com.cardshifter.modapi.base.ComponentRetriever;
@@ -14,6 +16,11 @@ public class EffectTargetFilterSystem extends SpecificActionTargetSystem {
 		super(actionName);
 	}
 
+	@Override
+	protected TargetDomain getTargetDomain(ECSAction action) {
+		return filter.has(action.getOwner()) ? filter.get(action.getOwner()).getDomain() : null;
+	}
+
 	@Override
 	protected void checkTargetable(TargetableCheckEvent event) {
 		if (filter.has(event.getAction().getOwner())) {
@@ -8,6 +8,7 @@ import com.cardshifter.modapi.base.ECSSystem;
 import com.cardshifter.modapi.base.Entity;
 import com.cardshifter.modapi.cards.BattlefieldComponent;
 import com.cardshifter.modapi.cards.ZoneChangeEvent;
+import com.cardshifter.modapi.events.EntityEvent;
 import com.cardshifter.modapi.events.EntityRemoveEvent;
 import com.cardshifter.modapi.events.IEvent;
 import com.cardshifter.modapi.resources.ECSResource;
@@ -16,34 +17,55 @@ import com.cardshifter.modapi.resources.ResourceRetriever;
 
 public class Effects {
 
-    public <T extends IEvent> Function<Entity, ECSSystem> triggerSystem(Class<T> eventClass, BiPredicate<Entity, T> interestingEvents, BiConsumer<Entity, T> handler) {
-        return e -> new ECSSystem() {
-            @Override
-            public void startGame(ECSGame game) {
-                game.getEvents().registerHandlerAfter(this, eventClass, this::event);
+    /**
+     * Creates a trigger that lasts as long as the entity it is given to is on the battlefield.
+     */
+    public <T extends IEvent> Consumer<Entity> trigger(Class<T> eventClass, BiPredicate<Entity, T> interestingEvents, BiConsumer<Entity, T> handler) {
+        return e -> e.getGame().getEffectLifetimes().registerHandlerAfter(e, eventClass, event -> {
+            if (interestingEvents.test(e, event)) {
+                handler.accept(e, event);
             }
+        });
+    }
 
-            private void event(T event) {
-                if (interestingEvents.test(e, event)) {
-                    handler.accept(e, event);
-                }
+    public <T extends IEvent> Consumer<Entity> triggerBefore(Class<T> eventClass, BiPredicate<Entity, T> interestingEvents, BiConsumer<Entity, T> handler) {
+        return e -> e.getGame().getEffectLifetimes().registerHandlerBefore(e, eventClass, event -> {
+            if (interestingEvents.test(e, event)) {
+                handler.accept(e, event);
             }
-        };
+        });
     }
 
+    /**
+     * @deprecated Use {@link #trigger(Class, BiPredicate, BiConsumer)} instead
+     */
+    @Deprecated
+    public <T extends IEvent> Function<Entity, ECSSystem> triggerSystem(Class<T> eventClass, BiPredicate<Entity, T> interestingEvents, BiConsumer<Entity, T> handler) {
+        Consumer<Entity> trigger = trigger(eventClass, interestingEvents, handler);
+        return e -> game -> trigger.accept(e);
+    }
+
+    /**
+     * @deprecated Use {@link #triggerBefore(Class, BiPredicate, BiConsumer)} instead
+     */
+    @Deprecated
     public <T extends IEvent> Function<Entity, ECSSystem> triggerSystemBefore(Class<T> eventClass, BiPredicate<Entity, T> interestingEvents, BiConsumer<Entity, T> handler) {
-        return e -> new ECSSystem() {
-            @Override
-            public void startGame(ECSGame game) {
-                game.getEvents().registerHandlerBefore(this, eventClass, this::event);
-            }
+        Consumer<Entity> trigger = triggerBefore(eventClass, interestingEvents, handler);
+        return e -> game -> trigger.accept(e);
+    }
 
-            private void event(T event) {
-                if (interestingEvents.test(e, event)) {
-                    handler.accept(e, event);
-                }
-            }
-        };
+    /**
+     * Creates a trigger that is only informed about the events that are about the entity it is given to.
+     */
+    public <T extends EntityEvent> Consumer<Entity> selfTrigger(Class<T> eventClass, BiConsumer<Entity, T> handler) {
+        return e -> e.getGame().getEffectLifetimes().registerEntityHandlerAfter(e, eventClass, event -> handler.accept(e, event));
+    }
+
+    /**
+     * Creates a trigger that is only informed about the events that are about the entity it is given to.
+     */
+    public <T extends EntityEvent> Consumer<Entity> selfTriggerBefore(Class<T> eventClass, BiConsumer<Entity, T> handler) {
+        return e -> e.getGame().getEffectLifetimes().registerEntityHandlerBefore(e, eventClass, event -> handler.accept(e, event));
     }
 
 	public EffectComponent giveTarget(ECSResource resource, int value, IntUnaryOperator operator) {
@@ -55,7 +77,16 @@ public class Effects {
 		});
 		return new EffectComponent("Give target " + value + " " + resource, effect);
 	}
-	public <T extends IEvent> EffectComponent giveSelf(Function<Entity, ECSSystem> system) {
+	public EffectComponent giveSelf(Consumer<Entity> trigger) {
+		GameEffect effect = (entity, event) -> trigger.accept(entity);
+		return new EffectComponent("Give target " + trigger, effect);
+	}
+
+	/**
+	 * @deprecated Use {@link #giveSelf(Consumer)} with {@link #trigger(Class, BiPredicate, BiConsumer)} instead
+	 */
+	@Deprecated
+	public EffectComponent giveSelf(Function<Entity, ECSSystem> system) {
 		GameEffect effect = (entity, event) -> entity.getGame().addSystem(new InGameSystem(entity, system.apply(entity)));
 		return new EffectComponent("Give target " + system, effect);
 	}
@@ -68,6 +99,12 @@ public class Effects {
 		return new EffectComponent(description, effectComponent.getEffect());
 	}
 
+	/**
+	 * A system that is removed when its entity is removed or leaves the battlefield.
+	 * 
+	 * @deprecated Effects on an entity are tracked by {@link com.cardshifter.modapi.cards.EffectLifetimes}, see {@link #giveSelf(Consumer)}
+	 */
+	@Deprecated
 	public static class InGameSystem implements ECSSystem {
 
 		private final Entity owningEntity;
@@ -80,24 +117,20 @@ public class Effects {
 
 		@Override
 		public void startGame(ECSGame game) {
-			game.getEvents().registerHandlerAfter(systemToRemove, EntityRemoveEvent.class, this::removeCheck);
-			game.getEvents().registerHandlerAfter(systemToRemove, ZoneChangeEvent.class, this::removeCheck);
+			game.getEvents().registerEntityHandlerAfter(systemToRemove, owningEntity, EntityRemoveEvent.class, this::removeCheck);
+			game.getEvents().registerEntityHandlerAfter(systemToRemove, owningEntity, ZoneChangeEvent.class, this::removeCheck);
 			game.addSystem(systemToRemove);
 		}
 		
 		private void removeCheck(EntityRemoveEvent event) {
-			if (event.getEntity() == owningEntity) {
-				event.getEntity().getGame().removeSystem(systemToRemove);
-			}
+			event.getEntity().getGame().removeSystem(systemToRemove);
 		}
 		
 		private void removeCheck(ZoneChangeEvent event) {
 			if (event.getDestination() instanceof BattlefieldComponent) {
 				return;
 			}
-			if (event.getCard() == owningEntity) {
-				event.getCard().getGame().removeSystem(systemToRemove);
-			}
+			event.getCard().getGame().removeSystem(systemToRemove);
 		}
 	}
 
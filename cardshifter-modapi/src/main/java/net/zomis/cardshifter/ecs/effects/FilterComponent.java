@@ -1,5 +1,6 @@
 package net.zomis.cardshifter.ecs.effects;
 
+import com.cardshifter.modapi.actions.TargetDomain;
 import com.cardshifter.modapi.actions.TargetableCheckEvent;
 import com.cardshifter.modapi.base.Component;
 import com.cardshifter.modapi.base.CopyableComponent;
@@ -8,14 +9,28 @@ import com.cardshifter.modapi.base.Entity;
 public class FilterComponent extends Component implements CopyableComponent {
 
 	private final TargetFilter filter;
+	private final TargetDomain domain;
 	
 	public FilterComponent(TargetFilter filter) {
+		this(filter, null);
+	}
+	
+	/**
+	 * @param filter The filter that targets need to match
+	 * @param domain The entities that the filter can match, or null if it can match any entity
+	 */
+	public FilterComponent(TargetFilter filter, TargetDomain domain) {
 		this.filter = filter;
+		this.domain = domain;
 	}
 	
 	@Override
 	public Component copy(Entity copyTo) {
-		return new FilterComponent(filter);
+		return new FilterComponent(filter, domain);
+	}
+	
+	public TargetDomain getDomain() {
+		return domain;
 	}
 	
 	public boolean check(TargetableCheckEvent event) {
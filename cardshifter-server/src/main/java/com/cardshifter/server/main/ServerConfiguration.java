@@ -20,7 +20,11 @@ public class ServerConfiguration {
     private int portWebsocket = 4243;
 
     private String modsDirectory = "extra-mods";
+    private String compiledModsDirectory = "";
     private WarningLevel missingSecurity = WarningLevel.WARN;
+    private boolean parallelLegalActions = false;
+    private int legalActionThreads = 2;
+    private boolean pushTargets = false;
 
     public static ServerConfiguration readFrom(String s) {
         Properties properties = new Properties();
@@ -34,7 +38,11 @@ public class ServerConfiguration {
         config.portSocket = Integer.parseInt(properties.getProperty("port", "4242"));
         config.portWebsocket = Integer.parseInt(properties.getProperty("websocket-port", "4243"));
         config.modsDirectory = properties.getProperty("mods", "extra-mods");
+        config.compiledModsDirectory = properties.getProperty("compiled-mods", "");
         config.missingSecurity = WarningLevel.valueOf(properties.getProperty("missing-security", WarningLevel.WARN.name()));
+        config.parallelLegalActions = Boolean.parseBoolean(properties.getProperty("parallel-legal-actions", "false"));
+        config.legalActionThreads = Integer.parseInt(properties.getProperty("legal-action-threads", "2"));
+        config.pushTargets = Boolean.parseBoolean(properties.getProperty("push-targets", "false"));
         return config;
     }
 
@@ -54,6 +62,17 @@ public class ServerConfiguration {
         this.modsDirectory = modsDirectory;
     }
 
+    /**
+     * @return The directory to store compiled mod scripts in, or an empty string to not store them
+     */
+    public String getCompiledModsDirectory() {
+        return compiledModsDirectory;
+    }
+
+    public void setCompiledModsDirectory(String compiledModsDirectory) {
+        this.compiledModsDirectory = compiledModsDirectory;
+    }
+
     public void setPortSocket(int portSocket) {
         this.portSocket = portSocket;
     }
@@ -70,6 +89,39 @@ public class ServerConfiguration {
         this.missingSecurity = missingSecurity;
     }
 
+    /**
+     * @return True if the legal actions of games should be checked on several threads
+     */
+    public boolean isParallelLegalActions() {
+        return parallelLegalActions;
+    }
+
+    public void setParallelLegalActions(boolean parallelLegalActions) {
+        this.parallelLegalActions = parallelLegalActions;
+    }
+
+    /**
+     * @return The number of threads in the pool that checks the legal actions of all games, if they are checked on several threads
+     */
+    public int getLegalActionThreads() {
+        return legalActionThreads;
+    }
+
+    public void setLegalActionThreads(int legalActionThreads) {
+        this.legalActionThreads = legalActionThreads;
+    }
+
+    /**
+     * @return True if the available targets should be sent right after the usable actions
+     */
+    public boolean isPushTargets() {
+        return pushTargets;
+    }
+
+    public void setPushTargets(boolean pushTargets) {
+        this.pushTargets = pushTargets;
+    }
+
     public static ServerConfiguration defaults() {
         return new ServerConfiguration();
     }
@@ -4,6 +4,7 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -52,6 +53,10 @@ public class MainServer {
     private final ServerConfiguration config;
 
     private Thread consoleThread;
+	/**
+	 * The pool that checks the legal actions of all games, or null if they are checked on the game threads
+	 */
+	private ForkJoinPool legalActionPool;
 
 	public MainServer(ServerConfiguration serverConfiguration, Server server) {
 		this.config = serverConfiguration;
@@ -69,6 +74,9 @@ public class MainServer {
 	 * @return The configured Server object
 	 */
 	public Server start() {
+		if (!config.getCompiledModsDirectory().isEmpty()) {
+			mods.useCompiledDirectory(Paths.get(config.getCompiledModsDirectory()));
+		}
         mods.loadExternal(mods.getDefaultModLocation());
         mods.loadExternal(Paths.get(config.getModsDirectory()));
 		try {
@@ -90,10 +98,19 @@ public class MainServer {
 				server.getIncomingHandler().perform(new LoginMessage("AI " + entry.getKey()), tcgAI);
 			});
 			final Supplier<ScheduledExecutorService> aiExecutor = () -> server.getScheduler();
+			if (config.isParallelLegalActions()) {
+				legalActionPool = new ForkJoinPool(config.getLegalActionThreads());
+			}
 			
 			mods.getAvailableMods().forEach(name ->
-				server.addGameFactory(name, (serv, id) ->
-					new TCGGame(aiExecutor, name, id, mods.getModFor(name))));
+				server.addGameFactory(name, (serv, id) -> {
+					TCGGame game = new TCGGame(aiExecutor, name, id, mods.getModFor(name));
+					if (config.isParallelLegalActions()) {
+						game.getGameModel().getLegalActions().setPool(legalActionPool);
+					}
+					game.setPushTargets(config.isPushTargets());
+					return game;
+				}));
 			
 			logger.info("Started");
 		}
@@ -199,6 +216,9 @@ public class MainServer {
 	 */
 	public void shutdown() {
 		server.stop();
+		if (legalActionPool != null) {
+			legalActionPool.shutdown();
+		}
 		
 		try {
 			Thread.sleep(3000);
@@ -7,6 +7,8 @@ import java.util.Arrays;
 
 import com.cardshifter.api.LogInterface;
 import com.cardshifter.api.incoming.ServerQueryMessage;
+import com.cardshifter.api.outgoing.AvailableTargetsMessage;
+import com.cardshifter.api.outgoing.UsableActionMessage;
 import com.cardshifter.core.Log4jAdapter;
 import net.zomis.cardshifter.ecs.usage.CardshifterIO;
 import org.junit.Test;
@@ -47,4 +49,23 @@ public class ByteSerializeTest {
 		assertEquals(ServerQueryMessage.Request.USERS, ((ServerQueryMessage) message).getRequest());
 	}
 
+	@Test
+	public void usableActionsKeepTheirTargets() throws Exception {
+		ByteTransformer transformer = createTransformer();
+		byte[] result = transformer.transform(new UsableActionMessage(3, "Attack", new int[]{ 4, 2 }, 1, 1));
+		UsableActionMessage message = (UsableActionMessage) transformer.readOnce(new ByteArrayInputStream(result));
+		assertTrue(message.hasTargets());
+		AvailableTargetsMessage targets = message.availableTargets();
+		assertEquals(3, targets.getEntity());
+		assertEquals("Attack", targets.getAction());
+		assertArrayEquals(new int[]{ 4, 2 }, targets.getTargets());
+		assertEquals(1, targets.getMin());
+		assertEquals(1, targets.getMax());
+
+		result = transformer.transform(new UsableActionMessage(3, "Attack", true));
+		message = (UsableActionMessage) transformer.readOnce(new ByteArrayInputStream(result));
+		assertTrue(message.isTargetRequired());
+		assertFalse(message.hasTargets());
+	}
+
 }
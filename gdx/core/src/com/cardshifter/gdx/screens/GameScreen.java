@@ -62,6 +62,22 @@ public class GameScreen implements Screen, TargetableCallback {
             return targetsSelected.add(view);
         }
     };
+    private final SpecificHandler<AvailableTargetsMessage> targetsHandler = new SpecificHandler<AvailableTargetsMessage>() {
+        @Override
+        public void handle(AvailableTargetsMessage message) {
+            targetsAvailable = message;
+            targetsSelected.clear();
+            for (EntityView view : entityViews.values()) {
+                view.setTargetable(TargetStatus.NOT_TARGETABLE, onTarget);
+            }
+            for (int id : message.getTargets()) {
+                EntityView view = entityViews.get(id);
+                if (view != null) {
+                    view.setTargetable(TargetStatus.TARGETABLE, onTarget);
+                }
+            }
+        }
+    };
     private final CardshifterClientContext context;
     //private final float screenWidth;
     private final float screenHeight;
@@ -72,7 +88,7 @@ public class GameScreen implements Screen, TargetableCallback {
         this.client = client;
         this.playerIndex = message.getPlayerIndex();
         this.gameId = message.getGameId();
-        this.context = new CardshifterClientContext(game.skin, message.getGameId(), client, game.stage);
+        this.context = new CardshifterClientContext(game.skin, message.getGameId(), client, game.stage, targetsHandler);
         //this.screenWidth = CardshifterGame.STAGE_WIDTH;
         this.screenHeight = CardshifterGame.STAGE_HEIGHT;
 
@@ -175,22 +191,7 @@ public class GameScreen implements Screen, TargetableCallback {
         Map<Class<? extends Message>, SpecificHandler<?>> handlers =
                 new HashMap<Class<? extends Message>, SpecificHandler<?>>();
 
-        handlers.put(AvailableTargetsMessage.class, new SpecificHandler<AvailableTargetsMessage>() {
-            @Override
-            public void handle(AvailableTargetsMessage message) {
-                targetsAvailable = message;
-                targetsSelected.clear();
-                for (EntityView view : entityViews.values()) {
-                    view.setTargetable(TargetStatus.NOT_TARGETABLE, onTarget);
-                }
-                for (int id : message.getTargets()) {
-                    EntityView view = entityViews.get(id);
-                    if (view != null) {
-                        view.setTargetable(TargetStatus.TARGETABLE, onTarget);
-                    }
-                }
-            }
-        });
+        handlers.put(AvailableTargetsMessage.class, targetsHandler);
         handlers.put(UsableActionMessage.class, new SpecificHandler<UsableActionMessage>() {
             @Override
             public void handle(UsableActionMessage message) {
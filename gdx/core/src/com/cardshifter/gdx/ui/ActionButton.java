@@ -3,8 +3,6 @@ package com.cardshifter.gdx.ui;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
-import com.cardshifter.api.incoming.RequestTargetsMessage;
-import com.cardshifter.api.incoming.UseAbilityMessage;
 import com.cardshifter.api.outgoing.UsableActionMessage;
 
 /**
@@ -19,12 +17,7 @@ public class ActionButton {
         this.button.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (message.isTargetRequired()) {
-                    context.send(new RequestTargetsMessage(context.getGameId(), message.getId(), message.getAction()));
-                }
-                else {
-                    context.send(new UseAbilityMessage(context.getGameId(), message.getId(), message.getAction(), 0));
-                }
+                context.sendAction(message);
             }
         });
     }
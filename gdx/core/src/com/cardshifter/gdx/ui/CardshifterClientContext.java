@@ -5,8 +5,10 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.cardshifter.api.incoming.RequestTargetsMessage;
 import com.cardshifter.api.incoming.UseAbilityMessage;
 import com.cardshifter.api.messages.Message;
+import com.cardshifter.api.outgoing.AvailableTargetsMessage;
 import com.cardshifter.api.outgoing.UsableActionMessage;
 import com.cardshifter.gdx.CardshifterClient;
+import com.cardshifter.gdx.SpecificHandler;
 
 /**
  * Created by Simon on 2/9/2015.
@@ -17,12 +19,22 @@ public class CardshifterClientContext {
     private final int gameId;
     private final CardshifterClient client;
     private final Stage stage;
+    private final SpecificHandler<AvailableTargetsMessage> targetsHandler;
 
     public CardshifterClientContext(Skin skin, int gameId, CardshifterClient client, Stage stage) {
+        this(skin, gameId, client, stage, null);
+    }
+
+    /**
+     * @param targetsHandler Handles the targets of actions that are sent together with the action, or null to always request the targets
+     */
+    public CardshifterClientContext(Skin skin, int gameId, CardshifterClient client, Stage stage,
+            SpecificHandler<AvailableTargetsMessage> targetsHandler) {
         this.skin = skin;
         this.gameId = gameId;
         this.client = client;
         this.stage = stage;
+        this.targetsHandler = targetsHandler;
     }
 
     public Skin getSkin() {
@@ -38,7 +50,11 @@ public class CardshifterClientContext {
     }
 
     public void sendAction(UsableActionMessage action) {
-        if (action.isTargetRequired()) {
+        if (action.hasTargets() && targetsHandler != null) {
+            // the server sent the targets together with the action, so there is no need to ask for them
+            targetsHandler.handle(action.availableTargets());
+        }
+        else if (action.isTargetRequired()) {
             send(new RequestTargetsMessage(gameId, action.getId(), action.getAction()));
         }
         else {